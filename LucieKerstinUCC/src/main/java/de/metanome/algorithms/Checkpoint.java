@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.data.InputKey;
+
+/***
+ * Checkpoint of a bottom-up run that was stopped by its budget (see LucieKerstinUCCAlgorithm.setTimeBudget).
+ * It contains the state of the stopped level: the ucc's found so far, the non-unique cc's of the level
+ * and the candidates of the level that were not checked yet. A later run on the same table checks these candidates
+ * and continues with the next levels as usual. The PLIs are not saved, they are computed again when they are needed.
+ *
+ * The checkpoint is keyed by the input file (canonical path, size and checksum, see InputKey), the table name,
+ * the column names, the number of rows and the max error, so a changed input file never continues from it.
+ * It is written to a temporary file first and renamed, so a checkpoint is complete, if it exists.
+ * It is deleted, when a run finishes.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class Checkpoint {
+
+	private static final int MAGIC = 0x55434350;
+	private static final int VERSION = 2;
+
+	private final File file;
+	private final InputKey key;
+
+	// content of a loaded checkpoint
+	private List<BitSet> uccs = null;
+	private List<BitSet> nonunique = null;
+	private List<BitSet> candidates = null;
+
+	/***
+	 * @param file: File: checkpoint file
+	 * @param input: File: input file of the table
+	 */
+	Checkpoint(File file, File input) {
+		this.file = file;
+		this.key = new InputKey(input);
+	}
+
+	/***
+	 * Loads the checkpoint, if there is one for the table of the algorithm.
+	 *
+	 * @param algorithm: LucieKerstinUCCAlgorithm: algorithm with the columns of the table
+	 *
+	 * @return boolean: true  - the checkpoint is loaded (see the getters)
+	 * 					 false - there is no checkpoint for the table
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	boolean load(LucieKerstinUCCAlgorithm algorithm) throws AlgorithmExecutionException {
+		if(!file.isFile()) return false;
+
+		try {
+			ByteBuffer in = Snapshot.map(file);
+			if(in.getInt() != MAGIC || in.getInt() != VERSION) return false;
+			if(!key.matches(Snapshot.getString(in), in.getLong(), in.getLong())) return false;
+			if(!equals(algorithm.tableName, Snapshot.getString(in))) return false;
+			int numColumns = in.getInt();
+			if(numColumns != algorithm.columnNames.size()) return false;
+			for(int c = 0; c < numColumns; c++) {
+				if(!equals(algorithm.columnNames.get(c), Snapshot.getString(in))) return false;
+			}
+			if(in.getInt() != algorithm.columns.getNumRows() || in.getDouble() != algorithm.maxError) return false;
+
+			uccs = getBitSets(in);
+			nonunique = getBitSets(in);
+			candidates = getBitSets(in);
+			return true;
+		} catch(IOException e) {
+			throw new AlgorithmExecutionException("Could not load the checkpoint " + file, e);
+		}
+	}
+
+	/***
+	 * Writes the state of the stopped level.
+	 *
+	 * @param algorithm: LucieKerstinUCCAlgorithm: algorithm with the ucc's found so far
+	 * @param nonunique: Collection<BitSet>: non-unique cc's of the level
+	 * @param candidates: Collection<BitSet>: candidates of the level that were not checked
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	void save(LucieKerstinUCCAlgorithm algorithm, Collection<BitSet> nonunique, Collection<BitSet> candidates) throws AlgorithmExecutionException {
+		try {
+			File directory = file.getAbsoluteFile().getParentFile();
+			if(!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("Could not create " + directory);
+			}
+			File temporary = new File(directory, file.getName() + ".tmp");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				Snapshot.putString(out, key.getPath());
+				out.writeLong(key.getLength());
+				out.writeLong(key.getChecksum());
+				Snapshot.putString(out, algorithm.tableName);
+				out.writeInt(algorithm.columnNames.size());
+				for(String columnName: algorithm.columnNames) {
+					Snapshot.putString(out, columnName);
+				}
+				out.writeInt(algorithm.columns.getNumRows());
+				out.writeDouble(algorithm.maxError);
+				putBitSets(out, algorithm.unique);
+				putBitSets(out, nonunique);
+				putBitSets(out, candidates);
+			} finally {
+				out.close();
+			}
+			// note: renameTo does not replace an existing file on all platforms
+			if(file.exists() && !file.delete() || !temporary.renameTo(file)) {
+				throw new IOException("Could not rename " + temporary + " to " + file);
+			}
+		} catch(IOException e) {
+			throw new AlgorithmExecutionException("Could not write the checkpoint " + file, e);
+		}
+	}
+
+	/***
+	 * Deletes the checkpoint (after a finished run).
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	void delete() throws AlgorithmExecutionException {
+		if(file.exists() && !file.delete()) {
+			throw new AlgorithmExecutionException("Could not delete the checkpoint " + file);
+		}
+	}
+
+	/***
+	 * Cc's are stored as their number of columns and the column indices.
+	 */
+	private static List<BitSet> getBitSets(ByteBuffer in) {
+		int size = in.getInt();
+		List<BitSet> ccs = new ArrayList<BitSet>(size);
+		for(int i = 0; i < size; i++) {
+			BitSet cc = new BitSet();
+			for(int columns = in.getInt(); columns > 0; columns--) {
+				cc.set(in.getInt());
+			}
+			ccs.add(cc);
+		}
+		return ccs;
+	}
+
+	private static void putBitSets(DataOutputStream out, Collection<BitSet> ccs) throws IOException {
+		out.writeInt(ccs.size());
+		for(BitSet cc: ccs) {
+			out.writeInt(cc.cardinality());
+			for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+				out.writeInt(c);
+			}
+		}
+	}
+
+	private static boolean equals(String first, String second) {
+		return first == null ? second == null : first.equals(second);
+	}
+
+	List<BitSet> getUccs() {
+		return uccs;
+	}
+
+	List<BitSet> getNonunique() {
+		return nonunique;
+	}
+
+	List<BitSet> getCandidates() {
+		return candidates;
+	}
+}
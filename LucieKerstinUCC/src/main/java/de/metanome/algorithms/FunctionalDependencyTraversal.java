@@ -0,0 +1,234 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+import de.metanome.algorithms.pli.PositionListIndex;
+
+/***
+ * Functional dependency discovery (similar to TANE) on the columns, PLIs and ucc's of a finished ucc run.
+ * The lattice is walked bottom-up, level by level, like the ucc candidates (see generateCandidates).
+ *
+ * X -> A holds, if the PLIs of X and X + A have the same number of duplicates (X + A cannot split a cluster of X).
+ * For each cc X, the candidate right hand sides C+(X) are kept: the columns A for which X - A -> A may still be
+ * a minimal fd. C+(X) is the intersection of C+(X - B) of all subsets with one column less.
+ * A cc is pruned, if C+(X) is empty, because no superset can have a minimal fd then.
+ *
+ * The ucc's of the run are the keys of the table: a key determines each column, so its supersets are pruned
+ * and its fd's X -> A are decided without a check (it is minimal, if no subset X - B determines A).
+ * In that way, the fd search reuses the ucc search instead of discovering the keys again.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class FunctionalDependencyTraversal {
+
+	private final LucieKerstinUCCAlgorithm algorithm;
+	private final int numColumns;
+
+	// C+ and number of duplicates of the cc's of the previous and the current level
+	private Map<BitSet, BitSet> previousRhs = new HashMap<BitSet, BitSet>();
+	private Map<BitSet, Long> previousDuplicates = new HashMap<BitSet, Long>();
+	private Map<BitSet, BitSet> rhs = new HashMap<BitSet, BitSet>();
+	private Map<BitSet, Long> duplicates = new HashMap<BitSet, Long>();
+
+	FunctionalDependencyTraversal(LucieKerstinUCCAlgorithm algorithm) {
+		this.algorithm = algorithm;
+		this.numColumns = algorithm.columns.getNumColumns();
+	}
+
+	void traverse() throws AlgorithmExecutionException {
+		// the empty cc: all rows are in one cluster, any column may be determined by it (constant columns)
+		BitSet empty = new BitSet();
+		BitSet allColumns = new BitSet();
+		allColumns.set(0, numColumns);
+		rhs.put(empty, allColumns);
+		duplicates.put(empty, Long.valueOf(Math.max(0, algorithm.columns.getNumRows() - 1)));
+
+		List<BitSet> level = new ArrayList<BitSet>();
+		for(int c = 0; c < numColumns; c++) {
+			level.add(ColumnCombinations.of(c));
+		}
+
+		while(!level.isEmpty()) {
+			previousRhs = rhs;
+			previousDuplicates = duplicates;
+			rhs = new HashMap<BitSet, BitSet>();
+			duplicates = new HashMap<BitSet, Long>();
+
+			computeDependencies(level);
+			level = generateNextLevel(prune(level));
+		}
+	}
+
+	/***
+	 * Computes C+ of each cc of a level and emits the minimal fd's X - A -> A.
+	 *
+	 * @param level: List<BitSet>: cc's of the level
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	private void computeDependencies(List<BitSet> level) throws AlgorithmExecutionException {
+		for(BitSet cc: level) {
+			duplicates.put(cc, Long.valueOf(countDuplicates(cc)));
+		}
+
+		for(BitSet cc: level) {
+			BitSet candidates = null;
+			for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+				BitSet subsetRhs = previousRhs.get(ColumnCombinations.without(cc, c));
+				if(candidates == null) {
+					candidates = (BitSet) subsetRhs.clone();
+				} else {
+					candidates.and(subsetRhs);
+				}
+			}
+
+			BitSet lhsCandidates = (BitSet) candidates.clone();
+			lhsCandidates.and(cc);
+			for(int a = lhsCandidates.nextSetBit(0); a >= 0; a = lhsCandidates.nextSetBit(a + 1)) {
+				BitSet lhs = ColumnCombinations.without(cc, a);
+				if(previousDuplicates.get(lhs).longValue() == duplicates.get(cc).longValue()) {
+					algorithm.emit(lhs, a);
+					// a superset of the lhs cannot have a minimal fd to A, and the other columns are determined by it
+					candidates.clear(a);
+					candidates.and(cc);
+				}
+			}
+			rhs.put(cc, candidates);
+		}
+	}
+
+	/***
+	 * Removes the cc's of a level that cannot be part of a minimal fd's left hand side anymore:
+	 * cc's with an empty C+ and keys. The fd's of the keys are emitted.
+	 *
+	 * @param level: List<BitSet>: cc's of the level
+	 *
+	 * @return List<BitSet>: remaining cc's for the next level
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	private List<BitSet> prune(List<BitSet> level) throws AlgorithmExecutionException {
+		List<BitSet> remaining = new ArrayList<BitSet>();
+		for(BitSet cc: level) {
+			BitSet candidates = rhs.get(cc);
+			if(candidates.isEmpty()) continue;
+			if(!isKey(cc)) {
+				remaining.add(cc);
+				continue;
+			}
+
+			// a key determines each column, the fd is minimal, if no subset with one column less determines the column
+			for(int a = candidates.nextSetBit(0); a >= 0; a = candidates.nextSetBit(a + 1)) {
+				if(cc.get(a)) continue;
+				if(isMinimal(cc, a)) {
+					algorithm.emit(cc, a);
+				}
+			}
+		}
+		return remaining;
+	}
+
+	/***
+	 * @param lhs: BitSet: key
+	 * @param rhs: int: column that is not part of the key
+	 *
+	 * @return boolean: true, if no subset of the key with one column less determines the column
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	private boolean isMinimal(BitSet lhs, int rhs) throws AlgorithmExecutionException {
+		for(int c = lhs.nextSetBit(0); c >= 0; c = lhs.nextSetBit(c + 1)) {
+			BitSet subset = ColumnCombinations.without(lhs, c);
+			BitSet extended = ColumnCombinations.with(subset, rhs);
+			Long extendedDuplicates = duplicates.get(extended);
+			long count = extendedDuplicates != null ? extendedDuplicates.longValue() : countDuplicates(extended);
+			if(previousDuplicates.get(subset).longValue() == count) return false;
+		}
+		return true;
+	}
+
+	/***
+	 * @param cc: BitSet: column combination (not empty)
+	 *
+	 * @return long: number of duplicates of the cc (0 for keys, without a PLI)
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	private long countDuplicates(BitSet cc) throws AlgorithmExecutionException {
+		if(isKey(cc)) return 0;
+
+		PositionListIndex pli = algorithm.computePositionListIndex(cc);
+		if(cc.cardinality() > 1) {
+			// the next level is computed from it
+			algorithm.pliCache.put(cc, pli);
+		}
+		return pli.getNumDuplicates();
+	}
+
+	private boolean isKey(BitSet cc) {
+		return algorithm.uniqueTrie.containsSubsetOf(cc);
+	}
+
+	/***
+	 * Joins the cc's of a level that share all columns but the last one (like the ucc candidates).
+	 * A joined cc is only generated, if all its subsets with one column less are part of the level.
+	 *
+	 * @param level: List<BitSet>: remaining cc's of a level
+	 *
+	 * @return List<BitSet>: cc's of the next level
+	 */
+	private List<BitSet> generateNextLevel(List<BitSet> level) {
+		List<BitSet> next = new ArrayList<BitSet>();
+		Set<BitSet> members = new HashSet<BitSet>(level);
+		List<BitSet> sorted = new ArrayList<BitSet>(level);
+		Collections.sort(sorted, ColumnCombinations.LEXICOGRAPHIC);
+
+		for(int i = 0, limit = sorted.size(); i < limit; i++) {
+			BitSet first = sorted.get(i);
+			BitSet prefix = ColumnCombinations.without(first, ColumnCombinations.lastColumn(first));
+			for(int j = i + 1; j < limit; j++) {
+				BitSet second = sorted.get(j);
+				int last = ColumnCombinations.lastColumn(second);
+				if(!prefix.equals(ColumnCombinations.without(second, last))) break;
+
+				BitSet cc = ColumnCombinations.with(first, last);
+				if(containsAllSubsets(members, cc)) {
+					next.add(cc);
+				}
+			}
+		}
+		return next;
+	}
+
+	private static boolean containsAllSubsets(Set<BitSet> members, BitSet cc) {
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			if(!members.contains(ColumnCombinations.without(cc, c))) return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.UccInducer;
+import de.metanome.algorithms.pli.AgreeSetSampler;
+import de.metanome.algorithms.pli.PositionListIndex;
+
+/***
+ * Hybrid ucc discovery (similar to HyUCC).
+ * Two phases are alternated:
+ * 	1. sampling:   pairs of rows are compared; their agree sets are non-unique cc's (cheap)
+ * 				   and the candidates for minimal ucc's are deduced from them (see UccInducer)
+ * 	2. validation: the candidates are checked against all rows with PLIs, level by level.
+ * 				   A candidate that is unique is a minimal ucc, because all its subsets are
+ * 				   subsets of known non-unique cc's. If a candidate is not unique, the rows of its
+ * 				   PLI clusters are compared, so the sampler learns the violating row pairs.
+ *
+ * The validation switches back to sampling, if too many candidates of a level fail.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class HybridTraversal {
+
+	// switch back to sampling, if more than this share of the candidates of a level fail
+	private static final double MAX_FAILURE_RATIO = 0.01;
+	// switch back to validation, if a sampling round finds less new agree sets per comparison
+	private static final double MIN_SAMPLING_EFFICIENCY = 0.01;
+
+	private final LucieKerstinUCCAlgorithm algorithm;
+	private final AgreeSetSampler sampler;
+	private final UccInducer inducer;
+
+	HybridTraversal(LucieKerstinUCCAlgorithm algorithm) {
+		this.algorithm = algorithm;
+		this.sampler = new AgreeSetSampler(algorithm.columns, algorithm.getColumnPlis());
+		this.inducer = new UccInducer(algorithm.columns.getNumColumns());
+	}
+
+	void traverse() throws AlgorithmExecutionException {
+		boolean finished = false;
+		while(!finished) {
+			sample();
+			finished = validate();
+		}
+	}
+
+	/***
+	 * Compares pairs of rows until the sampling gets inefficient (or all pairs are compared).
+	 */
+	private void sample() {
+		while(!sampler.isExhausted()) {
+			long comparisons = sampler.getComparisons();
+			List<BitSet> agreeSets = sampler.sample();
+			for(BitSet agreeSet: agreeSets) {
+				inducer.addNonUnique(agreeSet);
+			}
+			if(agreeSets.size() < MIN_SAMPLING_EFFICIENCY * (sampler.getComparisons() - comparisons)) break;
+		}
+	}
+
+	/***
+	 * Validates the candidates level by level.
+	 *
+	 * @return boolean: true  - all candidates are validated (all minimal ucc's are found)
+	 * 					 false - too many candidates failed, more sampling is needed
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	private boolean validate() throws AlgorithmExecutionException {
+		while(true) {
+			// get the smallest candidates that are not validated yet
+			List<BitSet> level = new ArrayList<BitSet>();
+			for(BitSet cc: inducer.getCandidates()) {
+				if(algorithm.uniqueTrie.contains(cc)) continue;
+				if(!level.isEmpty() && cc.cardinality() > level.get(0).cardinality()) break;
+				level.add(cc);
+			}
+			if(level.isEmpty()) return true;
+
+			List<BitSet> agreeSets = new ArrayList<BitSet>();
+			int failures = 0;
+			for(BitSet cc: level) {
+				long start = System.nanoTime();
+				PositionListIndex pli = algorithm.computePositionListIndex(cc);
+				boolean ucc = algorithm.isUnique(pli);
+				if(algorithm.metrics != null) {
+					algorithm.metrics.getLevel(cc.cardinality()).countCheck(ucc, System.nanoTime() - start);
+				}
+				if(ucc) {
+					algorithm.unique.add(cc);
+					algorithm.uniqueTrie.add(cc);
+					algorithm.emit(cc);
+				} else {
+					failures++;
+					algorithm.pliCache.put(cc, pli);
+					// learn from the violating rows (the first two rows of each cluster)
+					for(int[] cluster: pli.getClusters()) {
+						BitSet agreeSet = sampler.compare(cluster[0], cluster[1]);
+						if(agreeSet != null) {
+							agreeSets.add(agreeSet);
+						}
+					}
+				}
+			}
+			for(BitSet agreeSet: agreeSets) {
+				inducer.addNonUnique(agreeSet);
+			}
+
+			if(failures > MAX_FAILURE_RATIO * level.size() && !sampler.isExhausted()) return false;
+		}
+	}
+}
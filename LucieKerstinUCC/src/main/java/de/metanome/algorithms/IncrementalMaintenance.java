@@ -0,0 +1,412 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.algorithms.data.ValueIndex;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+import de.metanome.algorithms.lattice.SetTrie;
+import de.metanome.algorithms.lattice.UccInducer;
+
+/***
+ * Keeps the minimal ucc's of a table up to date, when rows are inserted or deleted.
+ * It starts from the result of a run of the algorithm and keeps:
+ * 	- the minimal ucc's
+ * 	- the maximal non-unique cc's, each with a witness (two rows that have equal values in the cc)
+ * 	- a value index of each column (see ValueIndex)
+ *
+ * Insert: only the new rows are checked against the minimal ucc's. The index of the most selective column of an ucc
+ * 		   gives the few rows that may have the same values as a new row. The agree set of each such pair
+ * 		   is non-unique, so the broken ucc's are specialized with it (see UccInducer).
+ * Delete: a maximal non-unique cc only has to be checked, if a row of its witness is deleted.
+ * 		   If no other witness is found, the cc is unique now and its subsets are searched for
+ * 		   the new maximal non-unique cc's (bounded by the old ucc's, which stay unique).
+ * 		   The minimal ucc's are deduced from them.
+ *
+ * In that way, the work depends on the changed rows (and the clusters they hit), not on the size of the table.
+ * Only a search for a new witness has to look at all rows of the cc's most selective column.
+ *
+ * Row ids are the positions of the rows in the table (without the header); inserted rows get the next free ids.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class IncrementalMaintenance {
+
+	private final LucieKerstinUCCAlgorithm algorithm;
+	private final ColumnStore columns;
+	private final int numColumns;
+	private final ValueIndex[] indexes;
+	private final BitSet deleted = new BitSet();
+
+	private List<BitSet> minimalUccs;
+	private final SetTrie maximalNonUccs;
+	private final Map<BitSet, int[]> witnesses = new HashMap<BitSet, int[]>();
+
+	/***
+	 * @param algorithm: LucieKerstinUCCAlgorithm: algorithm after a complete execute() (not stopped by a budget), with the table
+	 * 											   in heap and extendable (setExtendable(true), no spill directory, no encoded input) and exact ucc's
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	public IncrementalMaintenance(LucieKerstinUCCAlgorithm algorithm) throws AlgorithmExecutionException {
+		if(!(algorithm.columns instanceof ColumnStore) || !((ColumnStore) algorithm.columns).isExtendable()) {
+			throw new AlgorithmExecutionException("Incremental maintenance needs the table in heap and extendable (setExtendable(true), no spill directory, no encoded input)");
+		}
+		if(algorithm.maxError > 0) {
+			throw new AlgorithmExecutionException("Incremental maintenance only keeps exact ucc's (max error = 0)");
+		}
+		if(!algorithm.isComplete()) {
+			throw new AlgorithmExecutionException("Incremental maintenance needs all ucc's, but the run was stopped by its budget");
+		}
+		this.algorithm = algorithm;
+		this.columns = (ColumnStore) algorithm.columns;
+		this.numColumns = columns.getNumColumns();
+
+		this.indexes = new ValueIndex[numColumns];
+		for(int c = 0; c < numColumns; c++) {
+			indexes[c] = new ValueIndex(columns.getColumn(c), columns.getDistinctCount(c));
+		}
+
+		this.minimalUccs = new ArrayList<BitSet>(algorithm.unique);
+		Collections.sort(minimalUccs, ColumnCombinations.BY_SIZE);
+
+		// the maximal non-unique cc's are the complements of the minimal cc's that share a column with each ucc
+		this.maximalNonUccs = new SetTrie(numColumns);
+		List<BitSet> complements = new ArrayList<BitSet>();
+		if(minimalUccs.isEmpty()) {
+			complements.add(new BitSet());
+		} else {
+			UccInducer inducer = new UccInducer(numColumns);
+			for(BitSet ucc: minimalUccs) {
+				inducer.addNonUnique(complement(ucc));
+			}
+			complements.addAll(inducer.getCandidates());
+		}
+		for(BitSet cc: complements) {
+			BitSet nonUcc = complement(cc);
+			int[] witness = findWitness(nonUcc);
+			if(witness != null) {
+				addNonUcc(nonUcc, witness[0], witness[1]);
+			}
+		}
+	}
+
+	/***
+	 * Appends rows to the table and repairs the minimal ucc's they break.
+	 *
+	 * @param records: List<List<String>>: values of the new rows
+	 *
+	 * @return int[]: row ids of the new rows
+	 */
+	public int[] insert(List<List<String>> records) {
+		// cc's that break any new candidate also break one of the current ucc's
+		List<BitSet> uccs = minimalUccs;
+		UccInducer inducer = new UccInducer(numColumns, uccs);
+		boolean changed = false;
+
+		int[] rows = new int[records.size()];
+		for(int i = 0; i < rows.length; i++) {
+			int row = columns.getNumRows();
+			columns.add(records.get(i));
+			for(int c = 0; c < numColumns; c++) {
+				indexes[c].add(columns.getColumn(c).get(row), row);
+			}
+			rows[i] = row;
+
+			for(BitSet ucc: uccs) {
+				for(int other: findDuplicates(row, ucc)) {
+					BitSet agreeSet = agreeSet(row, other);
+					changed |= inducer.addNonUnique(agreeSet) > 0;
+					addNonUcc(agreeSet, row, other);
+				}
+			}
+		}
+
+		if(changed) {
+			minimalUccs = inducer.getCandidates();
+		}
+		return rows;
+	}
+
+	/***
+	 * Deletes rows from the table and looks for ucc's that are minimal now.
+	 *
+	 * @param rows: int[]: row ids of the deleted rows (unknown or deleted rows are ignored)
+	 */
+	public void delete(int[] rows) {
+		for(int row: rows) {
+			if(row < 0 || row >= columns.getNumRows() || deleted.get(row)) continue;
+			deleted.set(row);
+			for(int c = 0; c < numColumns; c++) {
+				indexes[c].remove(columns.getColumn(c).get(row), row);
+			}
+		}
+
+		// check the non-ucc's that lost their witness
+		List<BitSet> unique = new ArrayList<BitSet>();
+		for(Map.Entry<BitSet, int[]> entry: new ArrayList<Map.Entry<BitSet, int[]>>(witnesses.entrySet())) {
+			int[] witness = entry.getValue();
+			if(!deleted.get(witness[0]) && !deleted.get(witness[1])) continue;
+
+			BitSet cc = entry.getKey();
+			witness = findWitness(cc);
+			if(witness != null) {
+				witnesses.put(cc, witness);
+			} else {
+				maximalNonUccs.remove(cc);
+				witnesses.remove(cc);
+				unique.add(cc);
+			}
+		}
+		if(unique.isEmpty()) return;
+
+		// deleting rows keeps ucc's unique, so the old minimal ucc's bound the search below each cc
+		SetTrie uccs = new SetTrie(numColumns);
+		for(BitSet ucc: minimalUccs) {
+			uccs.add(ucc);
+		}
+		for(BitSet cc: unique) {
+			addMaximalNonUccsBelow(cc, uccs.getSubsetsOf(cc));
+		}
+
+		UccInducer inducer = new UccInducer(numColumns);
+		for(BitSet cc: maximalNonUccs.getAll()) {
+			inducer.addNonUnique(cc);
+		}
+		minimalUccs = inducer.getCandidates();
+	}
+
+	/***
+	 * Sends the current minimal ucc's to the result receiver of the algorithm.
+	 *
+	 * @throws CouldNotReceiveResultException
+	 */
+	public void emitResults() throws CouldNotReceiveResultException {
+		for(BitSet ucc: minimalUccs) {
+			algorithm.emit(ucc);
+		}
+	}
+
+	/***
+	 * @return List<BitSet>: current minimal ucc's, ordered by size
+	 */
+	public List<BitSet> getMinimalUccs() {
+		return Collections.unmodifiableList(minimalUccs);
+	}
+
+	/***
+	 * @return List<BitSet>: current maximal non-unique cc's
+	 */
+	public List<BitSet> getMaximalNonUccs() {
+		return maximalNonUccs.getAll();
+	}
+
+	/***
+	 * @return int: number of rows that are not deleted
+	 */
+	public int getNumRows() {
+		return columns.getNumRows() - deleted.cardinality();
+	}
+
+	/***
+	 * Searches the largest non-unique subsets of a cc that is unique now.
+	 * The candidates are the largest subsets that contain no known unique cc, i.e. the cc without a minimal
+	 * transversal of the known unique subsets (see UccInducer). A candidate with a witness is a maximal non-ucc,
+	 * any other candidate is unique: it is reduced to a minimal unique subset, which becomes one more known unique subset.
+	 * Then the candidates are deduced again.
+	 *
+	 * In that way, only the border inside the cc is checked, not all its unique subsets.
+	 *
+	 * @param cc: BitSet: column combination that lost its last witness
+	 * @param uniqueSubsets: List<BitSet>: known unique subsets of the cc
+	 */
+	private void addMaximalNonUccsBelow(BitSet cc, List<BitSet> uniqueSubsets) {
+		UccInducer transversals = new UccInducer(numColumns, Collections.singletonList(new BitSet()));
+		transversals.addNonUnique(complement(cc));
+		for(BitSet subset: uniqueSubsets) {
+			transversals.addNonUnique(complement(subset));
+		}
+
+		boolean changed = true;
+		while(changed) {
+			changed = false;
+			for(BitSet transversal: transversals.getCandidates()) {
+				BitSet candidate = (BitSet) cc.clone();
+				candidate.andNot(transversal);
+				if(maximalNonUccs.containsSupersetOf(candidate)) continue;
+
+				int[] witness = findWitness(candidate);
+				if(witness != null) {
+					addNonUcc(candidate, witness[0], witness[1]);
+				} else {
+					// a minimal unique subset excludes the most candidates
+					for(int c = candidate.nextSetBit(0); c >= 0; c = candidate.nextSetBit(c + 1)) {
+						candidate.clear(c);
+						if(findWitness(candidate) != null) {
+							candidate.set(c);
+						}
+					}
+					changed |= transversals.addNonUnique(complement(candidate)) > 0;
+				}
+			}
+		}
+	}
+
+	/***
+	 * Adds a non-unique cc, if it is no subset of a known maximal non-ucc, and removes its subsets.
+	 */
+	private void addNonUcc(BitSet cc, int row1, int row2) {
+		if(maximalNonUccs.containsSupersetOf(cc)) return;
+		for(BitSet subset: maximalNonUccs.getSubsetsOf(cc)) {
+			maximalNonUccs.remove(subset);
+			witnesses.remove(subset);
+		}
+		maximalNonUccs.add(cc);
+		witnesses.put(cc, new int[] {row1, row2});
+	}
+
+	/***
+	 * Finds all other rows with the same values as a row in a cc.
+	 * Only the rows with the same value in the most selective column of the cc are compared.
+	 *
+	 * @param row: int: row id
+	 * @param cc: BitSet: column combination (not empty)
+	 *
+	 * @return List<Integer>: ids of the duplicate rows
+	 */
+	private List<Integer> findDuplicates(int row, BitSet cc) {
+		int selective = -1;
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			if(selective < 0 || indexes[c].getCount(value(c, row)) < indexes[selective].getCount(value(selective, row))) {
+				selective = c;
+			}
+		}
+
+		List<Integer> duplicates = new ArrayList<Integer>();
+		int value = value(selective, row);
+		int[] candidates = indexes[selective].getRows(value);
+		for(int i = 0, limit = indexes[selective].getCount(value); i < limit; i++) {
+			int other = candidates[i];
+			if(other != row && agrees(row, other, cc)) {
+				duplicates.add(Integer.valueOf(other));
+			}
+		}
+		return duplicates;
+	}
+
+	/***
+	 * Searches two (not deleted) rows with the same values in a cc.
+	 * The rows of each value of the most selective column are grouped by their values in the other columns.
+	 *
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return int[]: ids of two rows or null, if the cc is unique
+	 */
+	private int[] findWitness(BitSet cc) {
+		if(cc.isEmpty()) {
+			int first = deleted.nextClearBit(0);
+			int second = deleted.nextClearBit(first + 1);
+			return second < columns.getNumRows() ? new int[] {first, second} : null;
+		}
+
+		int selective = cc.nextSetBit(0);
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			if(columns.getDistinctCount(c) > columns.getDistinctCount(selective)) {
+				selective = c;
+			}
+		}
+
+		ValueIndex index = indexes[selective];
+		for(int v = 0, numValues = index.getNumValues(); v < numValues; v++) {
+			int count = index.getCount(v);
+			if(count < 2) continue;
+			int[] rows = index.getRows(v);
+			Map<Projection, Integer> seen = new HashMap<Projection, Integer>();
+			for(int i = 0; i < count; i++) {
+				Integer other = seen.put(new Projection(cc, rows[i]), Integer.valueOf(rows[i]));
+				if(other != null) {
+					return new int[] {other.intValue(), rows[i]};
+				}
+			}
+		}
+		return null;
+	}
+
+	private int value(int column, int row) {
+		return columns.getColumn(column).get(row);
+	}
+
+	private boolean agrees(int row1, int row2, BitSet cc) {
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			if(value(c, row1) != value(c, row2)) return false;
+		}
+		return true;
+	}
+
+	private BitSet agreeSet(int row1, int row2) {
+		BitSet agreeSet = new BitSet(numColumns);
+		for(int c = 0; c < numColumns; c++) {
+			if(value(c, row1) == value(c, row2)) {
+				agreeSet.set(c);
+			}
+		}
+		return agreeSet;
+	}
+
+	private BitSet complement(BitSet cc) {
+		BitSet complement = new BitSet(numColumns);
+		complement.set(0, numColumns);
+		complement.andNot(cc);
+		return complement;
+	}
+
+	/***
+	 * Values of a row in a cc (as hash key).
+	 */
+	private class Projection {
+
+		private final int[] values;
+
+		Projection(BitSet cc, int row) {
+			values = new int[cc.cardinality()];
+			int i = 0;
+			for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+				values[i++] = value(c, row);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Projection && Arrays.equals(values, ((Projection) other).values);
+		}
+	}
+}
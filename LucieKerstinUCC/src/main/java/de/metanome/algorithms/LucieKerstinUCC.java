@@ -4,14 +4,16 @@ import java.util.ArrayList;
 
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.algorithm_types.FunctionalDependencyAlgorithm;
 import de.metanome.algorithm_integration.algorithm_types.RelationalInputParameterAlgorithm;
 import de.metanome.algorithm_integration.algorithm_types.UniqueColumnCombinationsAlgorithm;
 import de.metanome.algorithm_integration.configuration.ConfigurationRequirement;
 import de.metanome.algorithm_integration.configuration.ConfigurationRequirementRelationalInput;
 import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.algorithm_integration.result_receiver.FunctionalDependencyResultReceiver;
 import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
 
-public class LucieKerstinUCC extends LucieKerstinUCCAlgorithm implements UniqueColumnCombinationsAlgorithm, RelationalInputParameterAlgorithm {
+public class LucieKerstinUCC extends LucieKerstinUCCAlgorithm implements UniqueColumnCombinationsAlgorithm, FunctionalDependencyAlgorithm, RelationalInputParameterAlgorithm {
 
 	public enum Identifier {
 		INPUT_GENERATOR
@@ -30,6 +32,11 @@ public class LucieKerstinUCC extends LucieKerstinUCCAlgorithm implements UniqueC
 		this.resultReceiver = resultReceiver;
 	}
 
+	@Override
+	public void setResultReceiver(FunctionalDependencyResultReceiver resultReceiver) {
+		this.fdResultReceiver = resultReceiver;
+	}
+
 	@Override
 	public void setRelationalInputConfigurationValue(String identifier, RelationalInputGenerator... values) throws AlgorithmConfigurationException {
 		if (!LucieKerstinUCC.Identifier.INPUT_GENERATOR.name().equals(identifier))
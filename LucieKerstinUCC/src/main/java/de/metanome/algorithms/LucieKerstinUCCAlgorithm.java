@@ -16,18 +16,41 @@
 
 package de.metanome.algorithms;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.input.InputGenerationException;
 import de.metanome.algorithm_integration.input.InputIterationException;
 import de.metanome.algorithm_integration.input.RelationalInput;
 import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.result_receiver.FunctionalDependencyResultReceiver;
 import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.algorithms.data.EncodedColumns;
+import de.metanome.algorithms.data.EncodedInputGenerator;
+import de.metanome.algorithms.data.InputKey;
+import de.metanome.algorithms.data.MappedColumnStore;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+import de.metanome.algorithms.lattice.SetTrie;
+import de.metanome.algorithms.pli.AgreeSetSampler;
+import de.metanome.algorithms.pli.MappedPliStore;
+import de.metanome.algorithms.pli.PliCache;
+import de.metanome.algorithms.pli.PositionListIndex;
 
 /***
  * This algorithms identifies all minimal unique column combinations (ucc's) in a table.
@@ -39,203 +62,1111 @@ import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombination
  */
 public class LucieKerstinUCCAlgorithm {
 
+	/***
+	 * Strategies to find the minimal ucc's:
+	 * 	BOTTOM_UP   - apriori, level by level from single columns upwards (see generateCandidates)
+	 * 	TOP_DOWN    - level by level from the cc of all columns downwards (see TopDownTraversal)
+	 * 	RANDOM_WALK - random walk between unique and non-unique cc's, similar to DUCC (see RandomWalkTraversal)
+	 * 	HYBRID      - row pair sampling and validation of deduced candidates (see HybridTraversal)
+	 */
+	public enum Traversal {
+		BOTTOM_UP, TOP_DOWN, RANDOM_WALK, HYBRID
+	}
+
 	protected RelationalInputGenerator inputGenerator = null;
 	protected UniqueColumnCombinationResultReceiver resultReceiver = null;
-	protected List<List<String>> columns = new ArrayList<List<String>>();
-	protected List<List<Integer>> unique = new ArrayList<List<Integer>>();
+	// receiver of the minimal fd's, which are discovered after the ucc's (null = no fd discovery)
+	protected FunctionalDependencyResultReceiver fdResultReceiver = null;
+	protected EncodedColumns columns = null;
+	protected String tableName = null;
+	protected List<String> columnNames = null;
+	// number of distinct values of each column (all nulls count as one value)
+	// and columns with a single value, which cannot be part of a minimal ucc
+	protected int[] cardinalities = null;
+	protected BitSet constantColumns = null;
+	// found ucc's (in the order they were found) and a trie of them for subset lookups
+	protected List<BitSet> unique = new ArrayList<BitSet>();
+	protected SetTrie uniqueTrie = null;
+	// maximal agree sets of sampled row pairs: their subsets are non-unique (null = no pre-filter)
+	protected SetTrie agreeSetTrie = null;
+
+	// directory for memory-mapped columns and column PLIs (null = the table is kept in heap)
+	protected File spillDirectory = null;
+	// key of the input file: the spilled columns of an earlier run are only reused for the unchanged file (null = never reused)
+	protected InputKey spillInput = null;
+	// snapshot of the input file for later runs (null = no snapshot)
+	protected Snapshot snapshot = null;
+
+	// PLIs of single columns (kept in heap or read from their files) and cache for PLIs of cc's
+	protected PositionListIndex[] columnPlis = null;
+	protected MappedPliStore pliStore = null;
+	protected PliCache pliCache = null;
+	protected long pliCacheBudget = Runtime.getRuntime().maxMemory() / 4;
+	protected PliCache.Eviction pliCacheEviction = PliCache.Eviction.LRU;
+
+	protected Traversal traversal = Traversal.BOTTOM_UP;
+
+	// true, if the dictionaries of the table are kept after the run, so rows can be added (see IncrementalMaintenance)
+	protected boolean extendable = false;
+
+	// approximate ucc's: share of the rows that may be removed to make a cc unique (g3 error, 0 = exact ucc's)
+	protected double maxError = 0;
+	// maximum number of duplicates of an (approximate) ucc, derived from maxError and the number of rows
+	protected long maxDuplicates = 0;
+
+	// number of threads for the uniqueness checks of a level (1 = sequential)
+	protected int parallelism = 1;
+	protected ForkJoinPool pool = null;
+	// pool that is shared with other runs (it is not shut down after the run)
+	protected ForkJoinPool sharedPool = null;
+
+	// number of candidates a single fork-join task checks without splitting
+	private static final int CHECK_TASK_SIZE = 8;
+
+	// metrics per lattice level (null = not collected, so the checks only pay for a null check)
+	protected boolean collectMetrics = false;
+	protected Metrics metrics = null;
+
+	// budget of a bottom-up run: it stops, when the time or the heap usage exceeds it (0 = no budget)
+	protected long timeBudgetMillis = 0;
+	protected long memoryBudgetBytes = 0;
+	// state of a stopped run for a later run (null = no checkpoint)
+	protected Checkpoint checkpoint = null;
+	// true, if the budget of the current run is exceeded (the remaining candidates are not checked)
+	private volatile boolean stopped = false;
+	private long deadlineNanos = Long.MAX_VALUE;
+	// a run only stops after it has checked a candidate, so each continued run gets further
+	private volatile boolean checkedAny = false;
+
+	// progress of the current level (null = no progress reports)
+	protected ProgressListener progressListener = null;
+	protected long progressIntervalMillis = 10000;
+	private int progressLevel = 0;
+	private long progressLevelSize = 0;
+	private long progressLevelStart = 0;
+	private final AtomicLong progressChecked = new AtomicLong();
+	private final AtomicLong nextProgress = new AtomicLong();
 
 	public void execute() throws AlgorithmExecutionException {
+		long startNanos = System.nanoTime();
+		if(collectMetrics) {
+			Metrics.resetPeakHeap();
+		}
+
+		if(maxError > 0 && traversal == Traversal.HYBRID) {
+			// a duplicate row pair does not make a cc non-unique, if some duplicates are allowed
+			throw new AlgorithmExecutionException("The hybrid traversal only finds exact ucc's (max error = 0)");
+		}
+		if(maxError > 0 && fdResultReceiver != null) {
+			// the fd search uses the ucc's as keys, so they have to be exact
+			throw new AlgorithmExecutionException("Functional dependencies are only discovered with exact ucc's (max error = 0)");
+		}
+		if((timeBudgetMillis > 0 || memoryBudgetBytes > 0 || checkpoint != null) && traversal != Traversal.BOTTOM_UP) {
+			// only the levels of the bottom-up traversal are a state that can be saved and continued
+			throw new AlgorithmExecutionException("Budgets and checkpoints are only supported by the bottom-up traversal");
+		}
+		stopped = false;
+		checkedAny = false;
+		deadlineNanos = timeBudgetMillis > 0 ? startNanos + timeBudgetMillis * 1000000 : Long.MAX_VALUE;
+
+		// 0. a snapshot of an earlier run on the same input has the results already
+		if(snapshot != null && loadSnapshot()) {
+			discoverFunctionalDependencies();
+			finishMetrics(startNanos);
+			return;
+		}
 
 		// 1. read data
-		readData(this.inputGenerator.generateNewCopy());
+		readInput();
 		// 2. candidate generation + uniqueness checks
-		generateCandidates();
-		// 3. output unique column combinations
-		System.out.println("UCCs: " + unique);
+		if(sharedPool != null) {
+			pool = sharedPool;
+		} else if(parallelism > 1) {
+			pool = new ForkJoinPool(parallelism);
+		}
+		// 3. output unique column combinations (as soon as they are found)
+		try {
+			switch(traversal) {
+				case BOTTOM_UP:
+					generateCandidates();
+					break;
+				case TOP_DOWN:
+					new TopDownTraversal(this).traverse();
+					break;
+				case RANDOM_WALK:
+					new RandomWalkTraversal(this).traverse();
+					break;
+				case HYBRID:
+					new HybridTraversal(this).traverse();
+					break;
+			}
+		} finally {
+			if(pool != null && pool != sharedPool) {
+				pool.shutdown();
+			}
+			pool = null;
+		}
+		// 4. save a snapshot for later runs (only a complete run has all results)
+		if(snapshot != null && !stopped) {
+			snapshot.save(this);
+		}
+		// 5. fd's from the same columns and PLIs, with the ucc's as keys
+		discoverFunctionalDependencies();
+		finishMetrics(startNanos);
+	}
+
+	/***
+	 * Discovers the minimal fd's (see FunctionalDependencyTraversal), if there is a receiver for them.
+	 * A stopped run does not know all keys, so it has no fd's.
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	private void discoverFunctionalDependencies() throws AlgorithmExecutionException {
+		if(fdResultReceiver == null || stopped) return;
+		if(cardinalities == null) {
+			// a loaded snapshot has no cardinalities yet
+			initializeCardinalities();
+		}
+		new FunctionalDependencyTraversal(this).traverse();
+	}
+
+	/***
+	 * Adds the totals of the run to the metrics (if they are collected).
+	 * 
+	 * @param startNanos: long: System.nanoTime() at the start of the run
+	 */
+	private void finishMetrics(long startNanos) {
+		if(metrics == null) return;
+		metrics.finish(System.nanoTime() - startNanos, Metrics.getPeakHeap(), pliCache.getHits(), pliCache.getMisses());
+	}
+
+	/***
+	 * Reads the data of the input generator and builds the column PLIs.
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	void readInput() throws AlgorithmExecutionException {
+		if(this.inputGenerator instanceof EncodedInputGenerator && spillDirectory == null) {
+			readEncodedData((EncodedInputGenerator) this.inputGenerator);
+		} else {
+			readData(this.inputGenerator.generateNewCopy());
+		}
+		initializePlis();
 	}
 
 	/***
-	 * Reads data from a relational input.
-	 * The values of each column are stored in a separate list.
-	 * All column lists are added to another list.
-	 * In that way, the data can be accessed column by column.
+	 * Loads the snapshot and sends its ucc's to the result receiver.
+	 * The columns and column PLIs stay in their mapped files (as with a spill directory).
+	 * 
+	 * @return boolean: true, if there was a valid snapshot
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	private boolean loadSnapshot() throws AlgorithmExecutionException {
+		if(!snapshot.load(maxError)) return false;
+
+		tableName = snapshot.getTableName();
+		columnNames = snapshot.getColumnNames();
+		columns = snapshot.getColumns();
+		columnPlis = null;
+		pliStore = snapshot.getPliStore();
+		pliCache = new PliCache(pliCacheBudget, pliCacheEviction);
+		uniqueTrie = new SetTrie(columns.getNumColumns());
+		metrics = collectMetrics ? new Metrics(columns.getNumColumns()) : null;
+		for(BitSet cc: snapshot.getUccs()) {
+			unique.add(cc);
+			uniqueTrie.add(cc);
+			emit(cc);
+		}
+		return true;
+	}
+
+	/***
+	 * Reads data from a relational input (all records are data, the column names come from the input).
+	 * The values of each column are dictionary-encoded into a separate int array (see ColumnStore).
+	 * In that way, the data can be accessed column by column
+	 * and uniqueness checks only have to compare value ids.
+	 * If a spill directory is set, the columns are written to memory-mapped files instead (see MappedColumnStore).
 	 * 
 	 * @param input: RelationalInput: data of table
 	 * 
 	 * @throws AlgorithmExecutionException
 	 */
 	private void readData(RelationalInput input) throws AlgorithmExecutionException {
-		List<String> temp;
+		// get table and column names (are needed for the output)
+		tableName = input.relationName();
+		columnNames = new ArrayList<String>(input.columnNames());
 
-		// get column names (are not needed for the algorithm)
-		List<String> record = input.next();
-
-		// add a list for each column in the table
-		for(int i = 0, limit = record.size(); i < limit; i++) {
-			columns.add(new ArrayList<String>());
+		if(spillDirectory != null) {
+			readMappedData(input);
+			return;
 		}
 
-		// loop over all rows
+		// create an encoded column for each column in the table
+		ColumnStore store = new ColumnStore(columnNames.size());
+
+		// loop over all rows and add their encoded values to the columns
 		while (input.hasNext()) {
+			store.add(input.next());
+		}
+		store.trim(extendable);
+		columns = store;
+	}
+
+	/***
+	 * Takes the columns from an input generator that encodes the table itself (e.g. in parallel).
+	 * 
+	 * @param generator: EncodedInputGenerator: generator of the table
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	private void readEncodedData(EncodedInputGenerator generator) throws AlgorithmExecutionException {
+		tableName = generator.getRelationName();
+		columnNames = new ArrayList<String>(generator.getColumnNames());
+		columns = generator.generateEncodedColumns();
+	}
+
+	/***
+	 * Writes the encoded columns to memory-mapped files in the spill directory (one sub-directory per table).
+	 * If the files of an earlier run on the same, unchanged input file are complete, they are reused and the rows are not read at all.
+	 * 
+	 * @param input: RelationalInput: data of table (without the header)
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	private void readMappedData(RelationalInput input) throws AlgorithmExecutionException {
+		File directory = new File(spillDirectory, tableName);
+		try {
+			MappedColumnStore store = MappedColumnStore.open(directory, columnNames, spillInput);
+			if(store == null) {
+				store = MappedColumnStore.create(directory, columnNames.size());
+				try {
+					while (input.hasNext()) {
+						store.add(input.next());
+					}
+					store.finish(columnNames, spillInput);
+				} finally {
+					store.close();
+				}
+			}
+			columns = store;
+		} catch(IOException e) {
+			throw new AlgorithmExecutionException("Could not write the columns to " + directory, e);
+		}
+	}
+
+	/***
+	 * Builds the PLI of each single column and an empty PLI cache for the cc's.
+	 * With a spill directory, the column PLIs are written to files (or reused) and only read on demand.
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	private void initializePlis() throws AlgorithmExecutionException {
+		pliCache = new PliCache(pliCacheBudget, pliCacheEviction);
+		uniqueTrie = new SetTrie(columns.getNumColumns());
+		maxDuplicates = (long) Math.floor(maxError * columns.getNumRows());
+		metrics = collectMetrics ? new Metrics(columns.getNumColumns()) : null;
+		initializeCardinalities();
 
-			// get next row
-			record = input.next();
+		if(spillDirectory != null) {
+			File directory = new File(spillDirectory, tableName);
+			columnPlis = null;
+			pliStore = new MappedPliStore(directory, columns.getNumColumns());
+			try {
+				for(int c = 0, limit = columns.getNumColumns(); c < limit; c++) {
+					if(!pliStore.map(c)) {
+						pliStore.write(c, PositionListIndex.build(columns, c));
+					}
+				}
+			} catch(IOException e) {
+				throw new AlgorithmExecutionException("Could not write the column PLIs to " + directory, e);
+			}
+			return;
+		}
 
-			// clear temporary list for column values
-			temp = new ArrayList<String>();
+		pliStore = null;
+		columnPlis = new PositionListIndex[columns.getNumColumns()];
+		for(int c = 0; c < columnPlis.length; c++) {
+			columnPlis[c] = PositionListIndex.build(columns, c);
+		}
+		initializeAgreeSets();
+	}
 
-			// loop over all values (columns) in a row
-			for(int c = 0, limit = record.size(); c < limit; c++) {
-				// get already read values of current column
-				temp = columns.get(c);
-				// add current value to column
-				temp.add(record.get(c));
-				// write modified column back
-				columns.set(c, temp);
+	/***
+	 * Samples row pairs that agree in many columns (neighbors within the clusters, see AgreeSetSampler.sampleNeighbors).
+	 * The agree set of a pair is non-unique and so is each of its subsets, so a candidate that is covered
+	 * by a sampled agree set is non-unique without a check. Only the maximal agree sets are kept.
+	 * The pass compares at most as many pairs as the table has rows.
+	 * 
+	 * There is no filter for approximate ucc's (one duplicate pair proves nothing then),
+	 * with a spill directory (the column PLIs stay in files) or for the hybrid traversal (it samples on its own).
+	 */
+	private void initializeAgreeSets() {
+		agreeSetTrie = null;
+		if(maxDuplicates > 0 || columnPlis == null || traversal == Traversal.HYBRID) return;
+
+		List<BitSet> agreeSets = new AgreeSetSampler(columns, columnPlis).sampleNeighbors(columns.getNumRows());
+		// largest first, so subsets of earlier agree sets are skipped
+		Collections.sort(agreeSets, Collections.reverseOrder(ColumnCombinations.BY_SIZE));
+		agreeSetTrie = new SetTrie(columns.getNumColumns());
+		for(BitSet agreeSet: agreeSets) {
+			if(!agreeSetTrie.containsSupersetOf(agreeSet)) {
+				agreeSetTrie.add(agreeSet);
+			}
+		}
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 * 
+	 * @return boolean: true, if a sampled row pair agrees in all columns of the cc (the cc is non-unique for sure)
+	 */
+	protected boolean isCoveredByAgreeSet(BitSet cc) {
+		return agreeSetTrie != null && agreeSetTrie.containsSupersetOf(cc);
+	}
+
+	/***
+	 * Derives the cardinality of each column from the counts of the encoding (no pass over the rows).
+	 * A column with a single value does not change the PLI of any cc: a cc with it is unique exactly when
+	 * the cc without it is unique. So such a constant column is never searched (unless it is unique itself,
+	 * i.e. the table has hardly any rows).
+	 */
+	private void initializeCardinalities() {
+		int numColumns = columns.getNumColumns();
+		cardinalities = new int[numColumns];
+		constantColumns = new BitSet(numColumns);
+		for(int c = 0; c < numColumns; c++) {
+			cardinalities[c] = columns.getDistinctCount(c) + (columns.getNullCount(c) > 0 ? 1 : 0);
+			if(cardinalities[c] <= 1 && !canBeUnique(ColumnCombinations.of(c))) {
+				constantColumns.set(c);
 			}
 		}
 	}
 
+	/***
+	 * A cc has at most as many distinct value combinations as the product of the cardinalities of its columns.
+	 * If this product is lower than the number of rows (minus the allowed duplicates), the cc cannot be unique.
+	 * 
+	 * @param cc: BitSet: column combination
+	 * 
+	 * @return boolean: false, if the cc is non-unique for sure (true: it has to be checked)
+	 */
+	protected boolean canBeUnique(BitSet cc) {
+		long needed = columns.getNumRows() - maxDuplicates;
+		// note: the product is below needed (an int) before each multiplication, so it cannot overflow
+		long product = 1;
+		for(int c = cc.nextSetBit(0); c >= 0 && product < needed; c = cc.nextSetBit(c + 1)) {
+			product *= cardinalities[c];
+		}
+		return product >= needed;
+	}
+
+	/***
+	 * The PLI of a cc is computed from the PLI of the cc without its least selective column (lowest cardinality),
+	 * because the most selective subset has the smallest PLI, i.e. the fewest rows to intersect.
+	 * 
+	 * @param cc: BitSet: column combination (not empty)
+	 * 
+	 * @return int: column that is intersected last
+	 */
+	private int getIntersectionColumn(BitSet cc) {
+		int column = ColumnCombinations.lastColumn(cc);
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			if(cardinalities[c] < cardinalities[column]) {
+				column = c;
+			}
+		}
+		return column;
+	}
+
 	/***
 	 * Generates candidates (column combinations) for uniqueness checks.
-	 * Therefore all already identified ucc's and all non-unique cc's from the previous level are stored.
+	 * Therefore all non-unique cc's from the previous level are stored.
 	 * In that way, the fact that a superset of an ucc is also an ucc is used.
-	 * The approach is apriori and bottom-up.
+	 * The approach is apriori and bottom-up: each level contains the cc's with one column more.
+	 * 
+	 * The PLIs of the non-unique cc's are put into the PLI cache,
+	 * so the PLI of a candidate can be computed from the PLI of its parent.
+	 * 
+	 * If the budget is exceeded, the run stops after the current level and writes the ucc's found so far,
+	 * the non-unique cc's of the level and its unchecked candidates to the checkpoint (if there is one).
+	 * A later run continues with these candidates.
 	 */
-	protected void generateCandidates() {
+	protected void generateCandidates() throws AlgorithmExecutionException {
 
-		List<List<Integer>> nonunique = new ArrayList<List<Integer>>();
-		Set<List<Integer>> candidates = new HashSet<List<Integer>>();;
-		Set<Integer> cand;	// temporary candidate list
+		List<BitSet> nonunique = new ArrayList<BitSet>();
+		List<BitSet> candidates = new ArrayList<BitSet>();
+		// non-unique cc's of a stopped level, they are needed for the candidates of the next level
+		List<BitSet> carried = new ArrayList<BitSet>();
 		
-		// first candidates = single columns
-		for(int c = 0, limit = columns.size(); c < limit; c++) {
-			candidates.add(Arrays.asList(c));
+		if(checkpoint != null && checkpoint.load(this)) {
+			// continue the stopped run (its ucc's are sent again, the receiver may belong to a new run)
+			for(BitSet cc: checkpoint.getUccs()) {
+				unique.add(cc);
+				uniqueTrie.add(cc);
+				emit(cc);
+			}
+			carried = checkpoint.getNonunique();
+			candidates = checkpoint.getCandidates();
+		} else {
+			// first candidates = single columns (without constant columns)
+			for(int c = 0, limit = columns.getNumColumns(); c < limit; c++) {
+				if(!constantColumns.get(c)) {
+					candidates.add(ColumnCombinations.of(c));
+				}
+			}
+			if(metrics != null) {
+				Metrics.Level first = metrics.getLevel(1);
+				first.generated.addAndGet(candidates.size());
+				first.prunedByCardinality.addAndGet(constantColumns.cardinality());
+			}
 		}
 
 		// look for ucc's as long as there can be found at least one candidate
 		while(candidates.size() > 0) {
+			Metrics.Level level = metrics == null ? null : metrics.getLevel(candidates.get(0).cardinality());
+			long checkStart = 0, hits = 0, misses = 0;
+			if(level != null) {
+				Metrics.resetPeakHeap();
+				hits = pliCache.getHits();
+				misses = pliCache.getMisses();
+				checkStart = System.nanoTime();
+			}
 
 			// clear list of non-unique cc's
 			// (only non-unique cc's of last level are needed for candidate generation)
 			nonunique.clear();
+			List<BitSet> unchecked = new ArrayList<BitSet>();
+			checkLevel(candidates, nonunique, unchecked);
+			if(!carried.isEmpty()) {
+				nonunique.addAll(carried);
+				Collections.sort(nonunique, ColumnCombinations.LEXICOGRAPHIC);
+				carried.clear();
+			}
+			if(!unchecked.isEmpty()) {
+				// the budget is exceeded: the level cannot be finished, so its state is saved for a later run
+				if(checkpoint != null) {
+					checkpoint.save(this, nonunique, unchecked);
+				}
+				return;
+			}
+
+			// generate the candidates of the next level
+			long generationStart = level == null ? 0 : System.nanoTime();
+			candidates = generateNextLevel(nonunique);
 
-			// loop over candidates
-			for(List<Integer> list: candidates) {
-				// check if cc is unique and store it to appropriate list
-				if(checkColumnCombination(list)) {
-					unique.add(list);
-				} else {
-					nonunique.add(list);
+			// note: the generation time and the generated candidates belong to the next level
+			if(level != null) {
+				long now = System.nanoTime();
+				level.checkNanos.addAndGet(generationStart - checkStart);
+				level.cacheHits += pliCache.getHits() - hits;
+				level.cacheMisses += pliCache.getMisses() - misses;
+				level.peakHeapBytes = Math.max(level.peakHeapBytes, Metrics.getPeakHeap());
+				// a table without ucc's ends with the level of all columns, there is no next level then
+				if(!candidates.isEmpty()) {
+					Metrics.Level next = metrics.getLevel(level.getSize() + 1);
+					next.generationNanos.addAndGet(now - generationStart);
+					next.generated.addAndGet(candidates.size());
 				}
 			}
+		}
+		// all levels are checked, the state of a stopped run is not needed anymore
+		if(checkpoint != null) {
+			checkpoint.delete();
+		}
+	}
 
-			// clear candidate list
-			// note: this list is a HashSet to avoid duplicates
-			candidates.clear();
-
-			// loop over all non-unique cc's:
-			// generate new candidates by combine non-unique cc's
-			for(int i = 0, limit = nonunique.size(); i < limit; i++) {
-				for(int j = i+1; j < limit; j++) {
-					cand = new HashSet<Integer>(nonunique.get(i));
-					cand.addAll(nonunique.get(j));
-					// only a candidate if no superset of ucc
-					if(!checkIfPartlyUnique(cand)) {
-						candidates.add(new ArrayList<Integer>(cand));
-					}
+	/***
+	 * Checks all candidates of a level (concurrently, if a pool is given).
+	 * The ucc's are added to the found ucc's, the non-unique cc's to the given list.
+	 * Both are sorted, so the output does not depend on the order of the checks.
+	 * Candidates that are not checked, because the budget is exceeded, are added to the unchecked list.
+	 * 
+	 * @param candidates: List<BitSet>: candidates of the level
+	 * @param nonunique: List<BitSet>: empty list for the non-unique candidates
+	 * @param unchecked: List<BitSet>: empty list for the unchecked candidates
+	 * 
+	 * @return List<BitSet>: ucc's of the level
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	List<BitSet> checkLevel(List<BitSet> candidates, List<BitSet> nonunique, List<BitSet> unchecked) throws AlgorithmExecutionException {
+		Collection<BitSet> levelUnique = new ConcurrentLinkedQueue<BitSet>();
+		Collection<BitSet> levelNonunique = new ConcurrentLinkedQueue<BitSet>();
+		Collection<BitSet> levelUnchecked = new ConcurrentLinkedQueue<BitSet>();
+		startProgress(candidates);
+		if(pool == null) {
+			for(BitSet cc: candidates) {
+				checkCandidate(cc, levelUnique, levelNonunique, levelUnchecked);
+			}
+		} else {
+			invokeCheckTask(new CheckTask(candidates, 0, candidates.size(), levelUnique, levelNonunique, levelUnchecked));
+		}
+
+		List<BitSet> sortedUnique = new ArrayList<BitSet>(levelUnique);
+		Collections.sort(sortedUnique, ColumnCombinations.LEXICOGRAPHIC);
+		for(BitSet cc: sortedUnique) {
+			unique.add(cc);
+			uniqueTrie.add(cc);
+		}
+		nonunique.addAll(levelNonunique);
+		Collections.sort(nonunique, ColumnCombinations.LEXICOGRAPHIC);
+		unchecked.addAll(levelUnchecked);
+		Collections.sort(unchecked, ColumnCombinations.LEXICOGRAPHIC);
+		return sortedUnique;
+	}
+
+	/***
+	 * Checks if a cc is unique (=ucc) and stores it to the appropriate collection.
+	 * An ucc is minimal (all its subsets are non-unique), so it is sent to the result receiver at once.
+	 * The PLIs of non-unique cc's are put into the PLI cache for the next level.
+	 * Note: this method may be called concurrently for different cc's.
+	 * 
+	 * @param cc: BitSet: column combination
+	 * @param levelUnique: Collection<BitSet>: thread-safe collection for ucc's
+	 * @param levelNonunique: Collection<BitSet>: thread-safe collection for non-unique cc's
+	 * @param levelUnchecked: Collection<BitSet>: thread-safe collection for cc's that are not checked (budget exceeded)
+	 * 
+	 * @throws CouldNotReceiveResultException
+	 */
+	private void checkCandidate(BitSet cc, Collection<BitSet> levelUnique, Collection<BitSet> levelNonunique,
+			Collection<BitSet> levelUnchecked) throws CouldNotReceiveResultException {
+		if(isOverBudget()) {
+			levelUnchecked.add(cc);
+			return;
+		}
+		checkedAny = true;
+		reportProgress();
+		Metrics.Level level = metrics == null ? null : metrics.getLevel(cc.cardinality());
+		if(!canBeUnique(cc)) {
+			// non-unique without looking at the rows; the PLI is only computed, if a candidate of the next level needs it
+			if(level != null) level.prunedByCardinality.incrementAndGet();
+			levelNonunique.add(cc);
+			return;
+		}
+		if(isCoveredByAgreeSet(cc)) {
+			if(level != null) level.prunedByAgreeSet.incrementAndGet();
+			levelNonunique.add(cc);
+			return;
+		}
+		PositionListIndex pli = computePositionListIndex(cc);
+		boolean ucc = isUnique(pli);
+		if(level != null) level.countCheck(ucc, 0);
+		if(ucc) {
+			levelUnique.add(cc);
+			emit(cc);
+		} else {
+			levelNonunique.add(cc);
+			pliCache.put(cc, pli);
+		}
+	}
+
+	/***
+	 * Checks the budget of the run. Once it is exceeded, the run stays stopped.
+	 * The heap usage includes garbage, so the heap is collected before the memory budget counts as exceeded.
+	 * 
+	 * @return boolean: true, if the budget is exceeded
+	 */
+	private boolean isOverBudget() {
+		if(stopped) return true;
+		if(!checkedAny) return false;
+		if(deadlineNanos != Long.MAX_VALUE && System.nanoTime() > deadlineNanos) {
+			stopped = true;
+		} else if(memoryBudgetBytes > 0 && getUsedHeap() > memoryBudgetBytes) {
+			synchronized(this) {
+				if(!stopped && getUsedHeap() > memoryBudgetBytes) {
+					System.gc();
+					stopped = getUsedHeap() > memoryBudgetBytes;
 				}
 			}
 		}
+		return stopped;
+	}
+
+	private static long getUsedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/***
+	 * Starts the progress of a level.
+	 * 
+	 * @param candidates: List<BitSet>: candidates of the level
+	 */
+	private void startProgress(List<BitSet> candidates) {
+		if(progressListener == null || candidates.isEmpty()) return;
+		progressLevel = candidates.get(0).cardinality();
+		progressLevelSize = candidates.size();
+		progressLevelStart = System.nanoTime();
+		progressChecked.set(0);
+		nextProgress.set(progressLevelStart + progressIntervalMillis * 1000000);
+	}
+
+	/***
+	 * Counts a checked candidate and reports the progress, if the interval has passed.
+	 * Only the thread that moves the time of the next report reports, so the listener is not called concurrently.
+	 */
+	private void reportProgress() {
+		if(progressListener == null) return;
+		long checked = progressChecked.getAndIncrement();
+		long now = System.nanoTime();
+		long next = nextProgress.get();
+		if(now < next || !nextProgress.compareAndSet(next, now + progressIntervalMillis * 1000000)) return;
+
+		long remaining = progressLevelSize - checked;
+		long etaMillis = checked == 0 ? -1 : remaining * ((now - progressLevelStart) / checked) / 1000000;
+		synchronized(progressListener) {
+			progressListener.progress(progressLevel, checked, remaining, etaMillis);
+		}
 	}
 
 	/***
-	 * Checks if a given cc is a possible candidate for an ucc.
-	 * This check is based on the fact that each superset of an ucc is also an ucc.
+	 * Sends an ucc to the result receiver.
+	 * Therefore the column indices are converted to column identifiers (table name + column name).
 	 * 
-	 * @param cand: Set<Integer>: possible candidate (cc) for uniqueness
+	 * @param cc: BitSet: minimal ucc
 	 * 
-	 * @return boolean: true  - given cc is a candidate for ucc
-	 * 					 false - given cc is not unique
+	 * @throws CouldNotReceiveResultException
 	 */
-	private boolean checkIfPartlyUnique(Set<Integer> cand) {
-		for(List<Integer> u: unique) {
-			if(cand.containsAll(u)) return true;
+	protected void emit(BitSet cc) throws CouldNotReceiveResultException {
+		if(resultReceiver == null) return;
+
+		// the receiver does not have to be thread-safe
+		synchronized(resultReceiver) {
+			resultReceiver.receiveResult(new UniqueColumnCombination(getColumnIdentifiers(cc)));
 		}
-		return false;
 	}
 
 	/***
-	 * Checks if all values in a list (e.g. column or column combination) are unique.
+	 * Sends a minimal fd to the fd result receiver.
+	 * 
+	 * @param lhs: BitSet: left hand side (may be empty: the right hand side is constant)
+	 * @param rhs: int: column that is determined by the left hand side
 	 * 
-	 * @param list
-	 * @return boolean: true  - given list is unique
-	 * 					 false - given list is not unique
+	 * @throws CouldNotReceiveResultException
 	 */
-	private boolean isUnique(List<String> list) {
-		// HashSet is used because of feature:
-		// value is not added to set if the set already contains that value.
-		// (return value: false)
-		// In that way, duplicates can be identified.
-		Set<String> set = new HashSet<String>();
-		for (String each: list)
-			// if value is not added to set and it is not a null-value: duplicate
-			if (!set.add(each) && each!=null)
-				return false;
-		return true;
+	protected void emit(BitSet lhs, int rhs) throws CouldNotReceiveResultException {
+		if(fdResultReceiver == null) return;
+
+		synchronized(fdResultReceiver) {
+			fdResultReceiver.receiveResult(new FunctionalDependency(new ColumnCombination(getColumnIdentifiers(lhs)),
+					new ColumnIdentifier(tableName, columnNames.get(rhs))));
+		}
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 * 
+	 * @return ColumnIdentifier[]: column identifiers (table name + column name) of the columns of the cc
+	 */
+	private ColumnIdentifier[] getColumnIdentifiers(BitSet cc) {
+		ColumnIdentifier[] identifiers = new ColumnIdentifier[cc.cardinality()];
+		int i = 0;
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			identifiers[i++] = new ColumnIdentifier(tableName, columnNames.get(c));
+		}
+		return identifiers;
+	}
+
+	/***
+	 * Runs a check task on the pool.
+	 * Exceptions of the result receiver are wrapped by the task, so they are unwrapped here.
+	 * 
+	 * @param task: CheckTask: task for the candidates of a level
+	 * 
+	 * @throws AlgorithmExecutionException
+	 */
+	private void invokeCheckTask(CheckTask task) throws AlgorithmExecutionException {
+		try {
+			pool.invoke(task);
+		} catch(RuntimeException e) {
+			// note: the pool may wrap the exception of another thread once more
+			for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if(cause instanceof AlgorithmExecutionException) {
+					throw (AlgorithmExecutionException) cause;
+				}
+			}
+			throw e;
+		}
+	}
+
+	/***
+	 * Fork-join task that checks a range of the candidates of a level.
+	 * The range is split up until it contains at most CHECK_TASK_SIZE candidates.
+	 */
+	private class CheckTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<BitSet> candidates;
+		private final int from;
+		private final int to;
+		private final Collection<BitSet> levelUnique;
+		private final Collection<BitSet> levelNonunique;
+		private final Collection<BitSet> levelUnchecked;
+
+		CheckTask(List<BitSet> candidates, int from, int to, Collection<BitSet> levelUnique, Collection<BitSet> levelNonunique,
+				Collection<BitSet> levelUnchecked) {
+			this.candidates = candidates;
+			this.from = from;
+			this.to = to;
+			this.levelUnique = levelUnique;
+			this.levelNonunique = levelNonunique;
+			this.levelUnchecked = levelUnchecked;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= CHECK_TASK_SIZE) {
+				try {
+					for(int i = from; i < to; i++) {
+						checkCandidate(candidates.get(i), levelUnique, levelNonunique, levelUnchecked);
+					}
+				} catch(CouldNotReceiveResultException e) {
+					throw new RuntimeException(e);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new CheckTask(candidates, from, middle, levelUnique, levelNonunique, levelUnchecked),
+						new CheckTask(candidates, middle, to, levelUnique, levelNonunique, levelUnchecked));
+			}
+		}
+	}
+
+	/***
+	 * Generates the candidates of the next level from the non-unique cc's of a level (apriori-gen).
+	 * Two non-unique cc's are joined, if they share all columns but the last one (prefix).
+	 * A joined cc is only a candidate, if it is no superset of an ucc.
+	 * This is the case exactly when all its subsets with one column less are non-unique.
+	 * 
+	 * Example: [0, 1] and [0, 2] are joined to [0, 1, 2], if [1, 2] is non-unique as well.
+	 * 
+	 * @param nonunique: List<BitSet>: non-unique cc's, all of the same size
+	 * 
+	 * @return List<BitSet>: candidates of the next level (without duplicates)
+	 */
+	List<BitSet> generateNextLevel(List<BitSet> nonunique) {
+		List<BitSet> candidates = new ArrayList<BitSet>();
+
+		// sort the cc's, so cc's with the same prefix are next to each other
+		List<BitSet> sorted = new ArrayList<BitSet>(nonunique);
+		Collections.sort(sorted, ColumnCombinations.LEXICOGRAPHIC);
+
+		for(int i = 0, limit = sorted.size(); i < limit; i++) {
+			BitSet first = sorted.get(i);
+			BitSet prefix = ColumnCombinations.without(first, ColumnCombinations.lastColumn(first));
+
+			// join with all following cc's that have the same prefix
+			for(int j = i+1; j < limit; j++) {
+				BitSet second = sorted.get(j);
+				int last = ColumnCombinations.lastColumn(second);
+				if(!prefix.equals(ColumnCombinations.without(second, last))) break;
+
+				BitSet cand = ColumnCombinations.with(first, last);
+				// only a candidate if no superset of ucc
+				if(!uniqueTrie.containsSubsetOf(cand)) {
+					candidates.add(cand);
+				} else if(metrics != null) {
+					metrics.getLevel(cand.cardinality()).prunedBySubset.incrementAndGet();
+				}
+			}
+		}
+		return candidates;
 	}
 
 	/***
 	 * Checks if a cc is unique (=ucc).
-	 * Therefore the given columns are merged and the resulting column is check for uniqueness.
+	 * Only the duplicates of the cc are counted until the result is decided (see checkDuplicates),
+	 * so the check does not allocate anything for the cc itself.
 	 * 
-	 * @param list: List<Integer>: list with column indices
+	 * @param cc: BitSet: column combination
 	 * 
 	 * @return boolean: true  - cc is unique
 	 * 					 false - cc is not unique
 	 */
-	private boolean checkColumnCombination(List<Integer> list) {
-		List<String> columnCombination = mergeColumns(list);
-		return isUnique(columnCombination);
+	protected boolean isUnique(BitSet cc) {
+		Metrics.Level level = metrics == null ? null : metrics.getLevel(cc.cardinality());
+		if(!canBeUnique(cc)) {
+			if(level != null) level.prunedByCardinality.incrementAndGet();
+			return false;
+		}
+		if(isCoveredByAgreeSet(cc)) {
+			if(level != null) level.prunedByAgreeSet.incrementAndGet();
+			return false;
+		}
+		long start = level == null ? 0 : System.nanoTime();
+		boolean ucc = checkDuplicates(cc) <= maxDuplicates;
+		if(level != null) level.countCheck(ucc, System.nanoTime() - start);
+		return ucc;
 	}
 
 	/***
-	 * Merges the values of the given columns into one column.
+	 * A cc is unique, if it has at most maxDuplicates duplicates, i.e. its g3 error is at most maxError.
+	 * With maxError = 0, the PLI must not have any cluster.
+	 * Each superset of an (approximate) ucc is an (approximate) ucc as well, because its PLI is a refinement.
 	 * 
-	 * @param list: List<Integer>: list with column indices
+	 * @param pli: PositionListIndex: (partial) PLI of a cc
 	 * 
-	 * @return List<String>: merged column with values as String
+	 * @return boolean: true, if the cc is unique
 	 */
-	private List<String> mergeColumns(List<Integer> list) {
-		List<String> columnCombination = new ArrayList<String>();
-		List<List<String>> tempColumns = new ArrayList<List<String>>();
-		String cell = "";
+	protected boolean isUnique(PositionListIndex pli) {
+		return pli.getNumDuplicates() <= maxDuplicates;
+	}
 
-		// get values of each column (given by its index)
-		for(int i = 0, limit = list.size(); i < limit; i++) {
-			tempColumns.add(columns.get(list.get(i)));
+	/***
+	 * Counts the duplicates of a cc for a uniqueness check only.
+	 * The PLI of its parent is probed with the last column instead of intersected (see PositionListIndex.probeDuplicates),
+	 * which stops as soon as the result is decided.
+	 * 
+	 * @param cc: BitSet: column combination
+	 * 
+	 * @return long: number of duplicates (exact up to maxDuplicates + 1)
+	 */
+	protected long checkDuplicates(BitSet cc) {
+		int last = getIntersectionColumn(cc);
+		if(cc.cardinality() == 1) {
+			return getColumnPli(last).getNumDuplicates();
+		}
+		PositionListIndex pli = getPositionListIndex(ColumnCombinations.without(cc, last));
+		countScan(cc, pli);
+		return pli.probeDuplicates(columns.getColumn(last), maxDuplicates);
+	}
+
+	/***
+	 * Computes the PLI of a cc.
+	 * Therefore the PLI of its parent (the cc without its least selective column) is intersected with that column.
+	 * Single columns already have their PLI.
+	 * The cc is unique exactly when its PLI is empty (see PositionListIndex).
+	 * 
+	 * @param cc: BitSet: column combination
+	 * 
+	 * @return PositionListIndex: PLI of the cc
+	 */
+	protected PositionListIndex computePositionListIndex(BitSet cc) {
+		int last = getIntersectionColumn(cc);
+		if(cc.cardinality() == 1) {
+			return getColumnPli(last);
+		}
+		PositionListIndex pli = getPositionListIndex(ColumnCombinations.without(cc, last));
+		countScan(cc, pli);
+		return pli.intersect(columns.getColumn(last));
+	}
+
+	/***
+	 * Counts the rows that are intersected to compute the PLI of a cc (if metrics are collected).
+	 * An intersection looks at each row of the clusters of the parent PLI once
+	 * (an intersection that stops early looks at less rows).
+	 * 
+	 * @param cc: BitSet: column combination whose PLI is computed
+	 * @param parent: PositionListIndex: PLI that is intersected
+	 */
+	private void countScan(BitSet cc, PositionListIndex parent) {
+		if(metrics == null) return;
+		metrics.getLevel(cc.cardinality()).rowsScanned.addAndGet(parent.getNumDuplicates() + parent.getClusters().size());
+	}
+
+	/***
+	 * Returns the PLI of a non-unique cc.
+	 * If the PLI was evicted from the cache, it is recomputed from its largest cached subset
+	 * (or from the single column PLIs) and put into the cache again.
+	 * 
+	 * @param cc: BitSet: column combination
+	 * 
+	 * @return PositionListIndex: PLI of the cc
+	 */
+	private PositionListIndex getPositionListIndex(BitSet cc) {
+		if(cc.cardinality() == 1) {
+			return getColumnPli(cc.nextSetBit(0));
+		}
+		PositionListIndex pli = pliCache.get(cc);
+		if(pli != null) {
+			return pli;
 		}
 
-		// loop over all rows
-		for(int i = 0, c = tempColumns.get(0).size(); i < c; i++) {
-			cell = "";
-			// loop over all given columns
-			for(List<String> column: tempColumns) {
-				// add column value to value of the merged cell
-				// values are separated by spaces (more: see documentation)
-				/*
-				 * TODO DOKU: Trenner zwischen Spalten in String muss sinnvoll gewählt sein..
-				 * idealerweise kommt dieses Zeichen nirgends in der Tabelle sonst vor
-				 * - beim Einfachen zusammenhängen wird aus "AN"-"A" und "A"-"NA" das gleiche..
-				 */
-				cell += column.get(i) + " ";
+		// look for a cached subset with one column less
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			PositionListIndex subsetPli = pliCache.get(ColumnCombinations.without(cc, c));
+			if(subsetPli != null) {
+				countScan(cc, subsetPli);
+				pli = subsetPli.intersect(columns.getColumn(c));
+				break;
 			}
-			// remove last space
-			cell = cell.trim();
-			// add merged cell to resulting column
-			columnCombination.add(cell);
 		}
-		return columnCombination;
+		// otherwise: recompute the subset without the least selective column first
+		if(pli == null) {
+			pli = computePositionListIndex(cc);
+		}
+		pliCache.put(cc, pli);
+		return pli;
+	}
+
+	/***
+	 * Returns the PLI of a single column.
+	 * PLIs in files are cached like the PLIs of cc's, so they may be evicted and read again.
+	 * 
+	 * @param column: int: column index
+	 * 
+	 * @return PositionListIndex: PLI of the column
+	 */
+	protected PositionListIndex getColumnPli(int column) {
+		if(columnPlis != null) {
+			return columnPlis[column];
+		}
+		BitSet cc = ColumnCombinations.of(column);
+		PositionListIndex pli = pliCache.get(cc);
+		if(pli == null) {
+			pli = pliStore.read(column);
+			pliCache.put(cc, pli);
+		}
+		return pli;
+	}
+
+	/***
+	 * @return PositionListIndex[]: PLIs of all single columns (read into heap, if they are in files)
+	 */
+	PositionListIndex[] getColumnPlis() {
+		if(columnPlis != null) {
+			return columnPlis;
+		}
+		PositionListIndex[] plis = new PositionListIndex[columns.getNumColumns()];
+		for(int c = 0; c < plis.length; c++) {
+			plis[c] = pliStore.read(c);
+		}
+		return plis;
+	}
+
+	public PliCache getPliCache() {
+		return pliCache;
+	}
+
+	public void setPliCacheBudget(long pliCacheBudget) {
+		this.pliCacheBudget = pliCacheBudget;
+	}
+
+	public void setPliCacheEviction(PliCache.Eviction pliCacheEviction) {
+		this.pliCacheEviction = pliCacheEviction;
+	}
+
+	/***
+	 * @param spillDirectory: File: directory for memory-mapped columns and column PLIs,
+	 * 								 so the table does not have to fit into the heap (null = keep the table in heap)
+	 */
+	public void setSpillDirectory(File spillDirectory) {
+		this.setSpillDirectory(spillDirectory, null);
+	}
+
+	/***
+	 * Like setSpillDirectory(File), but the files of an earlier run are reused, as long as the input file is unchanged.
+	 * 
+	 * @param spillDirectory: File: directory for memory-mapped columns and column PLIs (null = keep the table in heap)
+	 * @param inputFile: File: input file of the table (the files are keyed by its path, size and checksum; null = never reuse them)
+	 */
+	public void setSpillDirectory(File spillDirectory, File inputFile) {
+		this.spillDirectory = spillDirectory;
+		this.spillInput = inputFile == null ? null : new InputKey(inputFile);
+	}
+
+	/***
+	 * Results, encoded columns and column PLIs are saved to a snapshot after the run.
+	 * A later run on the unchanged input file loads them instead of discovering the ucc's again.
+	 * 
+	 * @param snapshotDirectory: File: directory of the snapshots (null = no snapshot)
+	 * @param inputFile: File: input file of the table (the snapshot is keyed by its path, size and checksum)
+	 */
+	public void setSnapshot(File snapshotDirectory, File inputFile) {
+		this.snapshot = snapshotDirectory == null ? null : new Snapshot(snapshotDirectory, inputFile);
+	}
+
+	/***
+	 * @param maxError: double: g3 error that an approximate ucc may have, i.e. the share of the rows
+	 * 							that have to be removed to make it unique (0 = exact ucc's, must be less than 1)
+	 */
+	public void setMaxError(double maxError) {
+		this.maxError = maxError;
+	}
+
+	/***
+	 * @param collectMetrics: boolean: true, if metrics per lattice level are collected during the next run (see getMetrics)
+	 */
+	public void setCollectMetrics(boolean collectMetrics) {
+		this.collectMetrics = collectMetrics;
+	}
+
+	/***
+	 * @return Metrics: metrics of the last run (null, if they were not collected)
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void setTraversal(Traversal traversal) {
+		this.traversal = traversal;
+	}
+
+	/***
+	 * @param extendable: boolean: true  - the dictionaries of the table stay in heap after the run,
+	 * 									   so IncrementalMaintenance can add rows to it
+	 * 							   false - they are dropped once the table is read (default)
+	 */
+	public void setExtendable(boolean extendable) {
+		this.extendable = extendable;
+	}
+
+	/***
+	 * @param parallelism: int: number of threads that check the candidates of a level (1 = sequential)
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/***
+	 * @param sharedPool: ForkJoinPool: pool for the checks of a level that is shared with other runs,
+	 * 									 e.g. of other tables (null = own pool, see setParallelism)
+	 */
+	public void setPool(ForkJoinPool sharedPool) {
+		this.sharedPool = sharedPool;
+	}
+
+	/***
+	 * @param timeBudgetMillis: long: time after which a bottom-up run stops (0 = no budget, see isComplete)
+	 */
+	public void setTimeBudget(long timeBudgetMillis) {
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+
+	/***
+	 * @param memoryBudgetBytes: long: heap usage at which a bottom-up run stops (0 = no budget, see isComplete)
+	 */
+	public void setMemoryBudget(long memoryBudgetBytes) {
+		this.memoryBudgetBytes = memoryBudgetBytes;
+	}
+
+	/***
+	 * A run that is stopped by its budget writes its state to the checkpoint file.
+	 * The next run on the same table continues from it instead of starting at the single columns.
+	 * 
+	 * @param checkpointFile: File: checkpoint file of the table (null = no checkpoint)
+	 * @param inputFile: File: input file of the table (the checkpoint is keyed by its path, size and checksum)
+	 */
+	public void setCheckpoint(File checkpointFile, File inputFile) {
+		this.checkpoint = checkpointFile == null ? null : new Checkpoint(checkpointFile, inputFile);
+	}
+
+	/***
+	 * @param progressListener: ProgressListener: receives the progress of the current level (null = no reports)
+	 * @param progressIntervalMillis: long: time between two reports
+	 */
+	public void setProgressListener(ProgressListener progressListener, long progressIntervalMillis) {
+		this.progressListener = progressListener;
+		this.progressIntervalMillis = progressIntervalMillis;
+	}
+
+	/***
+	 * @return boolean: true  - the last run found all minimal ucc's
+	 * 					 false - the last run was stopped by its budget (only the ucc's found so far were sent)
+	 */
+	public boolean isComplete() {
+		return !stopped;
 	}
 }
 
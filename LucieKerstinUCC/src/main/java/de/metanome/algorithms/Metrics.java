@@ -0,0 +1,292 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/***
+ * Metrics of a run, per lattice level (level = number of columns of the checked cc's).
+ * The counters are updated concurrently by the checks, so they are atomic.
+ * The algorithm only collects metrics, if they are switched on (see LucieKerstinUCCAlgorithm.setCollectMetrics).
+ *
+ * Per level:
+ * 	- generated:           candidates of the level (bottom-up only)
+ * 	- prunedBySubset:      joined cc's that were no candidates, because they contain an ucc (bottom-up only)
+ * 	- prunedByCardinality: cc's that were non-unique for sure without a check (see canBeUnique)
+ * 	- prunedByAgreeSet:    cc's that a sampled row pair proved non-unique without a check (see isCoveredByAgreeSet)
+ * 	- checked, unique:     uniqueness checks with a PLI and the ucc's among them
+ * 	- rowsScanned:         rows of the PLIs that were intersected with one more column
+ * 	- generationMillis, checkMillis: time of the candidate generation and of the checks
+ * 	- cacheHits, cacheMisses: PLI cache lookups (bottom-up only, all other traversals only have the totals)
+ * 	- peakHeapBytes:       highest heap usage during the level (sum of the peaks of all heap memory pools)
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class Metrics {
+
+	private final Level[] levels;
+	private long runtimeNanos = 0;
+	private long peakHeapBytes = 0;
+	private long cacheHits = 0;
+	private long cacheMisses = 0;
+
+	/***
+	 * Counters of one lattice level.
+	 */
+	public static class Level {
+
+		private final int size;
+		final AtomicLong generated = new AtomicLong();
+		final AtomicLong prunedBySubset = new AtomicLong();
+		final AtomicLong prunedByCardinality = new AtomicLong();
+		final AtomicLong prunedByAgreeSet = new AtomicLong();
+		final AtomicLong checked = new AtomicLong();
+		final AtomicLong unique = new AtomicLong();
+		final AtomicLong rowsScanned = new AtomicLong();
+		final AtomicLong generationNanos = new AtomicLong();
+		final AtomicLong checkNanos = new AtomicLong();
+		long cacheHits = 0;
+		long cacheMisses = 0;
+		long peakHeapBytes = 0;
+
+		Level(int size) {
+			this.size = size;
+		}
+
+		/***
+		 * @param ucc: boolean: true, if the checked cc is unique
+		 * @param nanos: long: time of the check (0, if the time is measured for the whole level)
+		 */
+		void countCheck(boolean ucc, long nanos) {
+			checked.incrementAndGet();
+			if(ucc) unique.incrementAndGet();
+			if(nanos > 0) checkNanos.addAndGet(nanos);
+		}
+
+		boolean isEmpty() {
+			return generated.get() == 0 && prunedBySubset.get() == 0 && prunedByCardinality.get() == 0
+					&& prunedByAgreeSet.get() == 0 && checked.get() == 0;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public long getGenerated() {
+			return generated.get();
+		}
+
+		public long getPrunedBySubset() {
+			return prunedBySubset.get();
+		}
+
+		public long getPrunedByCardinality() {
+			return prunedByCardinality.get();
+		}
+
+		public long getPrunedByAgreeSet() {
+			return prunedByAgreeSet.get();
+		}
+
+		public long getChecked() {
+			return checked.get();
+		}
+
+		public long getUnique() {
+			return unique.get();
+		}
+
+		public long getRowsScanned() {
+			return rowsScanned.get();
+		}
+
+		public long getGenerationMillis() {
+			return generationNanos.get() / 1000000;
+		}
+
+		public long getCheckMillis() {
+			return checkNanos.get() / 1000000;
+		}
+
+		public long getCacheHits() {
+			return cacheHits;
+		}
+
+		public long getCacheMisses() {
+			return cacheMisses;
+		}
+
+		public long getPeakHeapBytes() {
+			return peakHeapBytes;
+		}
+	}
+
+	/***
+	 * @param numColumns: int: number of columns of the table (= number of levels)
+	 */
+	Metrics(int numColumns) {
+		levels = new Level[numColumns + 1];
+		for(int size = 0; size < levels.length; size++) {
+			levels[size] = new Level(size);
+		}
+	}
+
+	/***
+	 * @param size: int: number of columns of the cc's of the level
+	 *
+	 * @return Level: counters of the level
+	 */
+	Level getLevel(int size) {
+		return levels[size];
+	}
+
+	/***
+	 * Resets the peaks of the heap memory pools, so the next call of getPeakHeap() only sees the usage from now on.
+	 */
+	static void resetPeakHeap() {
+		for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans()) {
+			if(pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/***
+	 * @return long: sum of the peak usages of all heap memory pools since the last reset (in bytes)
+	 */
+	static long getPeakHeap() {
+		long peak = 0;
+		for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans()) {
+			if(pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	/***
+	 * Sets the totals of the run.
+	 * The heap peak is reset for each level, so the peak of the run is the highest of all peaks.
+	 *
+	 * @param runtimeNanos: long: runtime of the whole run
+	 * @param peakHeapBytes: long: heap peak since the last reset
+	 * @param cacheHits: long: PLI cache hits of the run
+	 * @param cacheMisses: long: PLI cache misses of the run
+	 */
+	void finish(long runtimeNanos, long peakHeapBytes, long cacheHits, long cacheMisses) {
+		this.runtimeNanos = runtimeNanos;
+		this.peakHeapBytes = peakHeapBytes;
+		for(Level level: levels) {
+			this.peakHeapBytes = Math.max(this.peakHeapBytes, level.peakHeapBytes);
+		}
+		this.cacheHits = cacheHits;
+		this.cacheMisses = cacheMisses;
+	}
+
+	/***
+	 * @return List<Level>: all levels with at least one candidate or check, ordered by size
+	 */
+	public List<Level> getLevels() {
+		List<Level> used = new ArrayList<Level>();
+		for(Level level: levels) {
+			if(!level.isEmpty()) {
+				used.add(level);
+			}
+		}
+		return used;
+	}
+
+	public long getRuntimeMillis() {
+		return runtimeNanos / 1000000;
+	}
+
+	public long getPeakHeapBytes() {
+		return peakHeapBytes;
+	}
+
+	public long getCacheHits() {
+		return cacheHits;
+	}
+
+	public long getCacheMisses() {
+		return cacheMisses;
+	}
+
+	/***
+	 * @return String: one line per level with a header line (comma-separated)
+	 */
+	public String toCsv() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("level,generated,prunedBySubset,prunedByCardinality,prunedByAgreeSet,checked,unique,rowsScanned,"
+				+ "generationMillis,checkMillis,cacheHits,cacheMisses,peakHeapBytes\n");
+		for(Level level: getLevels()) {
+			builder.append(level.getSize()).append(',')
+				.append(level.getGenerated()).append(',')
+				.append(level.getPrunedBySubset()).append(',')
+				.append(level.getPrunedByCardinality()).append(',')
+				.append(level.getPrunedByAgreeSet()).append(',')
+				.append(level.getChecked()).append(',')
+				.append(level.getUnique()).append(',')
+				.append(level.getRowsScanned()).append(',')
+				.append(level.getGenerationMillis()).append(',')
+				.append(level.getCheckMillis()).append(',')
+				.append(level.getCacheHits()).append(',')
+				.append(level.getCacheMisses()).append(',')
+				.append(level.getPeakHeapBytes()).append('\n');
+		}
+		return builder.toString();
+	}
+
+	/***
+	 * @return String: totals and levels as a JSON object
+	 */
+	public String toJson() {
+		StringBuilder builder = new StringBuilder("{\n");
+		builder.append("  \"runtimeMillis\": ").append(getRuntimeMillis()).append(",\n");
+		builder.append("  \"peakHeapBytes\": ").append(peakHeapBytes).append(",\n");
+		builder.append("  \"cacheHits\": ").append(cacheHits).append(",\n");
+		builder.append("  \"cacheMisses\": ").append(cacheMisses).append(",\n");
+		builder.append("  \"levels\": [");
+		List<Level> used = getLevels();
+		for(int i = 0; i < used.size(); i++) {
+			Level level = used.get(i);
+			builder.append(i == 0 ? "\n" : ",\n");
+			builder.append("    {\"level\": ").append(level.getSize())
+				.append(", \"generated\": ").append(level.getGenerated())
+				.append(", \"prunedBySubset\": ").append(level.getPrunedBySubset())
+				.append(", \"prunedByCardinality\": ").append(level.getPrunedByCardinality())
+				.append(", \"prunedByAgreeSet\": ").append(level.getPrunedByAgreeSet())
+				.append(", \"checked\": ").append(level.getChecked())
+				.append(", \"unique\": ").append(level.getUnique())
+				.append(", \"rowsScanned\": ").append(level.getRowsScanned())
+				.append(", \"generationMillis\": ").append(level.getGenerationMillis())
+				.append(", \"checkMillis\": ").append(level.getCheckMillis())
+				.append(", \"cacheHits\": ").append(level.getCacheHits())
+				.append(", \"cacheMisses\": ").append(level.getCacheMisses())
+				.append(", \"peakHeapBytes\": ").append(level.getPeakHeapBytes())
+				.append("}");
+		}
+		builder.append(used.isEmpty() ? "]\n" : "\n  ]\n");
+		builder.append("}\n");
+		return builder.toString();
+	}
+}
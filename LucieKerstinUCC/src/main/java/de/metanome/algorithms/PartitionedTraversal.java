@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+/***
+ * Bottom-up traversal of one part of the lattice, e.g. for a worker of a distributed run.
+ * A partition consists of the cc's whose leading (lowest) column is one of its leading columns.
+ *
+ * The candidates of a level are joined from non-unique cc's with the same prefix (see generateNextLevel),
+ * so from level 3 on, a partition generates its candidates from its own non-unique cc's only.
+ * Level 1 is checked completely in each partition, because the non-unique columns are joined to level 2.
+ * A subset without the leading column belongs to another partition, so the ucc's of the other partitions
+ * have to be added before each level (see addUccs); otherwise candidates are not pruned and ucc's are not minimal.
+ *
+ * The candidates of a partition are checked sequentially (one partition per core).
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class PartitionedTraversal {
+
+	private final LucieKerstinUCCAlgorithm algorithm;
+	private BitSet leadingColumns = null;
+	private List<BitSet> nonunique = new ArrayList<BitSet>();
+	private int level = 0;
+
+	/***
+	 * @param algorithm: LucieKerstinUCCAlgorithm: configured algorithm (input generator, PLI cache, max error)
+	 */
+	public PartitionedTraversal(LucieKerstinUCCAlgorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/***
+	 * Reads the data and builds the column PLIs.
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	public void initialize() throws AlgorithmExecutionException {
+		algorithm.readInput();
+	}
+
+	public String getTableName() {
+		return algorithm.tableName;
+	}
+
+	public List<String> getColumnNames() {
+		return algorithm.columnNames;
+	}
+
+	/***
+	 * @param leadingColumns: BitSet: leading columns of the cc's of this partition (null = all columns, i.e. one partition)
+	 */
+	public void setLeadingColumns(BitSet leadingColumns) {
+		this.leadingColumns = leadingColumns;
+	}
+
+	/***
+	 * Adds ucc's of other partitions (ucc's that are known already are skipped).
+	 *
+	 * @param uccs: Collection<BitSet>: minimal ucc's of the previous levels
+	 */
+	public void addUccs(Collection<BitSet> uccs) {
+		for(BitSet cc: uccs) {
+			if(!algorithm.uniqueTrie.contains(cc)) {
+				algorithm.unique.add(cc);
+				algorithm.uniqueTrie.add(cc);
+			}
+		}
+	}
+
+	/***
+	 * Generates and checks the candidates of the next level of this partition.
+	 *
+	 * @return List<BitSet>: ucc's of the level that belong to this partition
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	public List<BitSet> checkNextLevel() throws AlgorithmExecutionException {
+		level++;
+		List<BitSet> candidates = new ArrayList<BitSet>();
+		if(level == 1) {
+			for(int c = 0, limit = algorithm.columns.getNumColumns(); c < limit; c++) {
+				if(!algorithm.constantColumns.get(c)) {
+					candidates.add(ColumnCombinations.of(c));
+				}
+			}
+		} else {
+			for(BitSet cc: algorithm.generateNextLevel(nonunique)) {
+				// level 2 is joined from all columns, later levels from the own cc's only
+				if(isOwn(cc)) {
+					candidates.add(cc);
+				}
+			}
+		}
+
+		List<BitSet> levelNonunique = new ArrayList<BitSet>();
+		List<BitSet> own = new ArrayList<BitSet>();
+		// note: workers have no budget, so no candidate stays unchecked
+		for(BitSet cc: algorithm.checkLevel(candidates, levelNonunique, new ArrayList<BitSet>())) {
+			if(isOwn(cc)) {
+				own.add(cc);
+			}
+		}
+		nonunique = levelNonunique;
+		return own;
+	}
+
+	/***
+	 * @return int: number of non-unique cc's of the last level (0: the partition has no more candidates)
+	 */
+	public int getNumNonunique() {
+		return nonunique.size();
+	}
+
+	private boolean isOwn(BitSet cc) {
+		return leadingColumns == null || leadingColumns.get(cc.nextSetBit(0));
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+/***
+ * Receives the progress of a bottom-up run (see LucieKerstinUCCAlgorithm.setProgressListener).
+ * It may be called by any thread that checks candidates, but not concurrently.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public interface ProgressListener {
+
+	/***
+	 * @param level: int: current lattice level (number of columns of its candidates)
+	 * @param checked: long: candidates of the level that are checked already
+	 * @param remaining: long: candidates of the level that are not checked yet
+	 * @param etaMillis: long: estimated time until the level is checked, from the time per candidate so far
+	 * 						   (the candidates of later levels are not generated yet, so they are not included)
+	 */
+	void progress(int level, long checked, long remaining, long etaMillis);
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+import de.metanome.algorithms.lattice.SetTrie;
+import de.metanome.algorithms.lattice.UccInducer;
+
+/***
+ * Random walk ucc discovery (similar to DUCC).
+ * The walk jumps between unique and non-unique cc's:
+ * from an ucc it goes down to a random subset, from a non-unique cc up to a random superset.
+ * In that way, it stays close to the border between unique and non-unique cc's,
+ * no matter on which level this border is.
+ *
+ * Checks are saved with both closures:
+ * 	- each superset of an ucc is unique (upward closure)
+ * 	- each subset of a non-unique cc is non-unique (downward closure)
+ *
+ * An ucc is minimal, if all its subsets with one column less are non-unique.
+ * A non-unique cc is maximal, if all its supersets with one column more are unique.
+ * The walks may miss parts of the border (holes). They are found by deducing the minimal ucc's
+ * from the maximal non-unique cc's (see UccInducer): each deduced cc that was not found yet
+ * is the start of a new walk. If there is none, all minimal ucc's are found.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class RandomWalkTraversal {
+
+	// fixed seed, so runs on the same table are reproducible
+	private static final long SEED = 42;
+
+	private final LucieKerstinUCCAlgorithm algorithm;
+	private final int numColumns;
+	private final Random random = new Random(SEED);
+
+	// all checked cc's (for the closures) and the cc's that the walks have left already
+	private final SetTrie knownUnique;
+	private final SetTrie knownNonunique;
+	private final Set<BitSet> visited = new HashSet<BitSet>();
+	private final List<BitSet> maximalNonunique = new ArrayList<BitSet>();
+
+	RandomWalkTraversal(LucieKerstinUCCAlgorithm algorithm) {
+		this.algorithm = algorithm;
+		this.numColumns = algorithm.columns.getNumColumns();
+		this.knownUnique = new SetTrie(numColumns);
+		this.knownNonunique = new SetTrie(numColumns);
+	}
+
+	void traverse() throws AlgorithmExecutionException {
+		// first walks start at the single columns (constant columns are never part of a minimal ucc)
+		List<BitSet> seeds = new ArrayList<BitSet>();
+		for(int c = 0; c < numColumns; c++) {
+			if(!algorithm.constantColumns.get(c)) {
+				seeds.add(ColumnCombinations.of(c));
+			}
+		}
+
+		while(!seeds.isEmpty()) {
+			for(BitSet seed: seeds) {
+				if(!visited.contains(seed)) {
+					walk(seed);
+				}
+			}
+			seeds = findHoles();
+		}
+	}
+
+	/***
+	 * Walks through the lattice, starting at the given cc.
+	 * The path is kept on a stack, so the walk can go back if there is no unvisited neighbor.
+	 * A cc is visited, when the walk goes back from it (all its neighbors are known then).
+	 *
+	 * @param seed: BitSet: first cc of the walk
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	private void walk(BitSet seed) throws AlgorithmExecutionException {
+		Deque<BitSet> path = new ArrayDeque<BitSet>();
+		Set<BitSet> onPath = new HashSet<BitSet>();
+		path.push(seed);
+		onPath.add(seed);
+
+		while(!path.isEmpty()) {
+			BitSet cc = path.peek();
+			boolean unique = isUnique(cc);
+
+			// ucc: go down, non-unique cc: go up
+			List<BitSet> neighbors = unique ? getSubsets(cc) : getSupersets(cc);
+			List<BitSet> next = new ArrayList<BitSet>();
+			for(BitSet neighbor: neighbors) {
+				if(visited.contains(neighbor) || onPath.contains(neighbor)) continue;
+				// neighbors that cannot be on the border are skipped
+				if(unique && knownNonunique.containsSupersetOf(neighbor)) continue;
+				if(!unique && knownUnique.containsSubsetOf(neighbor)) continue;
+				next.add(neighbor);
+			}
+			if(!next.isEmpty()) {
+				BitSet neighbor = next.get(random.nextInt(next.size()));
+				path.push(neighbor);
+				onPath.add(neighbor);
+				continue;
+			}
+
+			// all neighbors are known: the cc is on the border, if all of them have the other state
+			path.pop();
+			onPath.remove(cc);
+			visited.add(cc);
+			boolean border = true;
+			for(BitSet neighbor: neighbors) {
+				if(isUnique(neighbor) == unique) {
+					border = false;
+					break;
+				}
+			}
+			if(border && unique) {
+				algorithm.unique.add(cc);
+				algorithm.uniqueTrie.add(cc);
+				algorithm.emit(cc);
+			} else if(border) {
+				maximalNonunique.add(cc);
+			}
+		}
+	}
+
+	/***
+	 * Deduces the minimal ucc's from the maximal non-unique cc's found so far.
+	 *
+	 * @return List<BitSet>: deduced cc's that are no known minimal ucc's (holes)
+	 */
+	private List<BitSet> findHoles() {
+		UccInducer inducer = new UccInducer(numColumns);
+		for(BitSet cc: maximalNonunique) {
+			// the walks skip the constant columns, but a cc with them is non-unique as well
+			BitSet nonunique = (BitSet) cc.clone();
+			nonunique.or(algorithm.constantColumns);
+			inducer.addNonUnique(nonunique);
+		}
+		List<BitSet> holes = new ArrayList<BitSet>();
+		for(BitSet cc: inducer.getCandidates()) {
+			if(!algorithm.uniqueTrie.contains(cc)) {
+				holes.add(cc);
+			}
+		}
+		return holes;
+	}
+
+	/***
+	 * Checks if a cc is unique.
+	 * Cc's that are decided by one of the closures are not checked again.
+	 *
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return boolean: true, if the cc is unique
+	 */
+	private boolean isUnique(BitSet cc) {
+		if(knownUnique.containsSubsetOf(cc)) return true;
+		if(knownNonunique.containsSupersetOf(cc)) return false;
+
+		if(algorithm.isUnique(cc)) {
+			knownUnique.add(cc);
+			return true;
+		}
+		knownNonunique.add(cc);
+		return false;
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return List<BitSet>: all subsets with one column less (the empty cc is never reported)
+	 */
+	private List<BitSet> getSubsets(BitSet cc) {
+		List<BitSet> subsets = new ArrayList<BitSet>();
+		if(cc.cardinality() > 1) {
+			for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+				subsets.add(ColumnCombinations.without(cc, c));
+			}
+		}
+		return subsets;
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return List<BitSet>: all supersets with one column more (but no constant column)
+	 */
+	private List<BitSet> getSupersets(BitSet cc) {
+		List<BitSet> supersets = new ArrayList<BitSet>();
+		for(int c = cc.nextClearBit(0); c < numColumns; c = cc.nextClearBit(c + 1)) {
+			if(!algorithm.constantColumns.get(c)) {
+				supersets.add(ColumnCombinations.with(cc, c));
+			}
+		}
+		return supersets;
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.data.EncodedColumns;
+import de.metanome.algorithms.data.InputKey;
+import de.metanome.algorithms.data.MappedColumnStore;
+import de.metanome.algorithms.pli.MappedPliStore;
+
+/***
+ * Snapshot of a finished run on an input file: encoded columns, column PLIs and minimal ucc's.
+ * A later run on the same file loads the snapshot instead of reading the table and traversing the lattice.
+ * All files are memory-mapped, so loading mainly costs the checksum of the input file.
+ *
+ * The snapshot is keyed by the canonical path, the size and the CRC32 checksum of the input file (see InputKey)
+ * and by the max error of the ucc's (see LucieKerstinUCCAlgorithm.setMaxError).
+ * If the file changed, the key does not match: the snapshot is ignored and written again after the run.
+ *
+ * Files (in a sub-directory per input file, named after the file name and a hash of the canonical path):
+ * 	- column<c>.bin, columns.properties: encoded columns (see MappedColumnStore)
+ * 	- pli<c>.bin:                       PLIs of the single columns (see MappedPliStore)
+ * 	- snapshot.bin:                     key, table name, column names and minimal ucc's.
+ * 										It is written last, so the snapshot is complete, if it exists.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class Snapshot {
+
+	private static final String SNAPSHOT_FILE = "snapshot.bin";
+	private static final int MAGIC = 0x55434353;
+	private static final int VERSION = 2;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final File directory;
+	private final InputKey key;
+
+	// content of a loaded snapshot
+	private String tableName = null;
+	private List<String> columnNames = null;
+	private MappedColumnStore columns = null;
+	private MappedPliStore pliStore = null;
+	private List<BitSet> uccs = null;
+
+	/***
+	 * @param snapshotDirectory: File: directory of all snapshots
+	 * @param input: File: input file of the table
+	 */
+	Snapshot(File snapshotDirectory, File input) {
+		this.directory = new File(snapshotDirectory, getDirectoryName(input));
+		this.key = new InputKey(input);
+	}
+
+	/***
+	 * Loads the snapshot of the input file, if there is a complete one with a matching key.
+	 *
+	 * @param maxError: double: max error of the ucc's of the current run
+	 *
+	 * @return boolean: true  - the snapshot is loaded (see the getters)
+	 * 					 false - there is no valid snapshot, the table has to be discovered again
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	boolean load(double maxError) throws AlgorithmExecutionException {
+		File file = new File(directory, SNAPSHOT_FILE);
+		if(!file.isFile()) return false;
+
+		try {
+			ByteBuffer in = map(file);
+			if(in.getInt() != MAGIC || in.getInt() != VERSION) return false;
+			if(!key.matches(getString(in), in.getLong(), in.getLong())) return false;
+			if(in.getDouble() != maxError) return false;
+
+			String tableName = getString(in);
+			int numColumns = in.getInt();
+			List<String> columnNames = new ArrayList<String>(numColumns);
+			for(int c = 0; c < numColumns; c++) {
+				columnNames.add(getString(in));
+			}
+			int numUccs = in.getInt();
+			List<BitSet> uccs = new ArrayList<BitSet>(numUccs);
+			for(int i = 0; i < numUccs; i++) {
+				BitSet ucc = new BitSet(numColumns);
+				for(int size = in.getInt(); size > 0; size--) {
+					ucc.set(in.getInt());
+				}
+				uccs.add(ucc);
+			}
+
+			MappedColumnStore columns = MappedColumnStore.open(directory, columnNames, key);
+			if(columns == null) return false;
+			MappedPliStore pliStore = new MappedPliStore(directory, numColumns);
+			for(int c = 0; c < numColumns; c++) {
+				if(!pliStore.map(c)) return false;
+			}
+
+			this.tableName = tableName;
+			this.columnNames = columnNames;
+			this.columns = columns;
+			this.pliStore = pliStore;
+			this.uccs = uccs;
+			return true;
+		} catch(IOException e) {
+			throw new AlgorithmExecutionException("Could not load the snapshot " + directory, e);
+		}
+	}
+
+	/***
+	 * Writes the snapshot of a finished run.
+	 * Columns and column PLIs that are in the snapshot directory already (spill directory = snapshot directory)
+	 * are not written again.
+	 *
+	 * @param algorithm: LucieKerstinUCCAlgorithm: algorithm after the traversal
+	 *
+	 * @throws AlgorithmExecutionException
+	 */
+	void save(LucieKerstinUCCAlgorithm algorithm) throws AlgorithmExecutionException {
+		try {
+			File file = new File(directory, SNAPSHOT_FILE);
+			// the old snapshot is invalid from now on
+			if(file.exists() && !file.delete()) {
+				throw new IOException("Could not delete " + file);
+			}
+
+			int numColumns = algorithm.columns.getNumColumns();
+			if(!isInDirectory(algorithm.columns)) {
+				MappedColumnStore.write(directory, algorithm.columns, algorithm.columnNames, key);
+				MappedPliStore pliStore = new MappedPliStore(directory, numColumns);
+				for(int c = 0; c < numColumns; c++) {
+					pliStore.write(c, algorithm.getColumnPli(c));
+				}
+			}
+
+			File temporary = new File(directory, SNAPSHOT_FILE + ".tmp");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				putString(out, key.getPath());
+				out.writeLong(key.getLength());
+				out.writeLong(key.getChecksum());
+				out.writeDouble(algorithm.maxError);
+				putString(out, algorithm.tableName);
+				out.writeInt(numColumns);
+				for(String columnName: algorithm.columnNames) {
+					putString(out, columnName);
+				}
+				out.writeInt(algorithm.unique.size());
+				for(BitSet ucc: algorithm.unique) {
+					out.writeInt(ucc.cardinality());
+					for(int c = ucc.nextSetBit(0); c >= 0; c = ucc.nextSetBit(c + 1)) {
+						out.writeInt(c);
+					}
+				}
+			} finally {
+				out.close();
+			}
+			if(!temporary.renameTo(file)) {
+				throw new IOException("Could not rename " + temporary + " to " + file);
+			}
+		} catch(IOException e) {
+			throw new AlgorithmExecutionException("Could not write the snapshot " + directory, e);
+		}
+	}
+
+	/***
+	 * @param input: File: input file of the table
+	 *
+	 * @return String: file name and hash of the canonical path, so files with the same name in different folders
+	 * 				   have their own snapshots
+	 */
+	private static String getDirectoryName(File input) {
+		String path;
+		try {
+			path = input.getCanonicalPath();
+		} catch(IOException e) {
+			path = input.getAbsolutePath();
+		}
+		CRC32 crc = new CRC32();
+		crc.update(path.getBytes(UTF8));
+		return input.getName() + "-" + Long.toHexString(crc.getValue());
+	}
+
+	private boolean isInDirectory(EncodedColumns columns) throws IOException {
+		return columns instanceof MappedColumnStore
+				&& ((MappedColumnStore) columns).getDirectory().getCanonicalFile().equals(directory.getCanonicalFile());
+	}
+
+	static ByteBuffer map(File file) throws IOException {
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			// the mapping stays valid after the file is closed
+			return in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+		} finally {
+			in.close();
+		}
+	}
+
+	/***
+	 * Strings are stored as their number of UTF-8 bytes (-1 = null) and the bytes.
+	 */
+	static String getString(ByteBuffer in) {
+		int length = in.getInt();
+		if(length < 0) return null;
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	static void putString(DataOutputStream out, String value) throws IOException {
+		if(value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	String getTableName() {
+		return tableName;
+	}
+
+	List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	MappedColumnStore getColumns() {
+		return columns;
+	}
+
+	MappedPliStore getPliStore() {
+		return pliStore;
+	}
+
+	List<BitSet> getUccs() {
+		return uccs;
+	}
+}
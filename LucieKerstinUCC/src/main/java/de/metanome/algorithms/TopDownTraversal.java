@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+import de.metanome.algorithms.lattice.SetTrie;
+
+/***
+ * Top-down ucc discovery.
+ * The search starts with the cc of all columns and goes down level by level:
+ * the candidates of the next level are the subsets (one column less) of the ucc's of the current level.
+ * An ucc is minimal, if none of its subsets with one column less is unique.
+ *
+ * Each subset of a non-unique cc is non-unique as well (downward closure),
+ * so candidates that are subsets of a known non-unique cc are not checked.
+ * This traversal is fast, if the minimal ucc's are large (e.g. wide tables with low cardinalities).
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class TopDownTraversal {
+
+	private final LucieKerstinUCCAlgorithm algorithm;
+	private final SetTrie nonunique;
+
+	TopDownTraversal(LucieKerstinUCCAlgorithm algorithm) {
+		this.algorithm = algorithm;
+		this.nonunique = new SetTrie(algorithm.columns.getNumColumns());
+	}
+
+	void traverse() throws AlgorithmExecutionException {
+		int numColumns = algorithm.columns.getNumColumns();
+		if(numColumns == 0) return;
+
+		BitSet all = new BitSet(numColumns);
+		all.set(0, numColumns);
+		// constant columns are never part of a minimal ucc
+		all.andNot(algorithm.constantColumns);
+		if(all.isEmpty()) return;
+		// no ucc's at all, if the table contains duplicate rows
+		if(!algorithm.isUnique(all)) return;
+
+		List<BitSet> level = new ArrayList<BitSet>();
+		level.add(all);
+
+		while(!level.isEmpty()) {
+			// ucc's of the next level (note: subsets of different ucc's may be equal)
+			Set<BitSet> nextLevel = new LinkedHashSet<BitSet>();
+			List<BitSet> minimal = new ArrayList<BitSet>();
+
+			for(BitSet cc: level) {
+				boolean isMinimal = true;
+				// single columns have no subsets to check (the empty cc is never reported)
+				if(cc.cardinality() > 1) {
+					for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+						BitSet subset = ColumnCombinations.without(cc, c);
+						if(nextLevel.contains(subset) || isUnique(subset)) {
+							nextLevel.add(subset);
+							isMinimal = false;
+						}
+					}
+				}
+				if(isMinimal) {
+					minimal.add(cc);
+				}
+			}
+
+			Collections.sort(minimal, ColumnCombinations.LEXICOGRAPHIC);
+			for(BitSet cc: minimal) {
+				algorithm.unique.add(cc);
+				algorithm.uniqueTrie.add(cc);
+				algorithm.emit(cc);
+			}
+			level = new ArrayList<BitSet>(nextLevel);
+		}
+	}
+
+	/***
+	 * Checks if a cc is unique. Subsets of known non-unique cc's are not checked again.
+	 *
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return boolean: true, if the cc is unique
+	 */
+	private boolean isUnique(BitSet cc) {
+		if(nonunique.containsSupersetOf(cc)) return false;
+		if(algorithm.isUnique(cc)) return true;
+		nonunique.add(cc);
+		return false;
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import java.util.List;
+
+/***
+ * Dictionary-encoded column store of a table.
+ * Each column is stored as a primitive int array of value ids instead of a list of Strings.
+ * Equal values of a column get the same id, so uniqueness checks only have to compare ints.
+ *
+ * All null values share the id NULL_ID (0), i.e. null values are equal to each other.
+ * The ids of real values start with 1.
+ *
+ * The whole table is kept in heap (see MappedColumnStore for tables that do not fit into the heap).
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class ColumnStore implements EncodedColumns {
+
+	/** shared value id of all null values (in every column) */
+	public static final int NULL_ID = 0;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final int numColumns;
+	private int numRows = 0;
+	private int[][] columns;
+	// dictionaries while records are added, distinct counts of columns that are encoded already
+	private Dictionary[] dictionaries;
+	private int[] distinctCounts;
+	private final int[] nullCounts;
+
+	public ColumnStore(int numColumns) {
+		this.numColumns = numColumns;
+		this.columns = new int[numColumns][INITIAL_CAPACITY];
+		this.dictionaries = new Dictionary[numColumns];
+		for(int c = 0; c < numColumns; c++) {
+			this.dictionaries[c] = new Dictionary();
+		}
+		this.distinctCounts = null;
+		this.nullCounts = new int[numColumns];
+	}
+
+	/***
+	 * Creates a store of columns that are encoded already (e.g. by a parallel reader).
+	 * No records can be added to it.
+	 *
+	 * @param columns: int[][]: value ids of each column (all columns have the same length),
+	 * 							  NULL_ID for null values and 1 to the distinct count for the other values
+	 * @param distinctCounts: int[]: number of distinct non-null values of each column
+	 * @param nullCounts: int[]: number of null values of each column
+	 */
+	public ColumnStore(int[][] columns, int[] distinctCounts, int[] nullCounts) {
+		this.numColumns = columns.length;
+		this.numRows = columns.length == 0 ? 0 : columns[0].length;
+		this.columns = columns;
+		this.dictionaries = null;
+		this.distinctCounts = distinctCounts;
+		this.nullCounts = nullCounts;
+	}
+
+	/***
+	 * Encodes a record and appends it to the columns.
+	 * Missing values (record is shorter than the schema) are treated as null.
+	 *
+	 * @param record: List<String>: values of one row
+	 */
+	public void add(List<String> record) {
+		if(dictionaries == null) {
+			throw new IllegalStateException("The columns are encoded already");
+		}
+		// grow all columns if the capacity is reached
+		if(numRows == columns[0].length) {
+			grow();
+		}
+		for(int c = 0; c < numColumns; c++) {
+			String value = c < record.size() ? record.get(c) : null;
+			columns[c][numRows] = dictionaries[c].encode(value);
+			if(value == null) {
+				nullCounts[c]++;
+			}
+		}
+		numRows++;
+	}
+
+	private void grow() {
+		int capacity = Math.max(INITIAL_CAPACITY, columns[0].length * 2);
+		for(int c = 0; c < numColumns; c++) {
+			int[] column = new int[capacity];
+			System.arraycopy(columns[c], 0, column, 0, numRows);
+			columns[c] = column;
+		}
+	}
+
+	/***
+	 * Cuts the columns down to the number of rows and drops the dictionaries (only their sizes are kept).
+	 * Should be called once all records are added. No records can be added afterwards.
+	 */
+	public void trim() {
+		trim(false);
+	}
+
+	/***
+	 * Cuts the columns down to the number of rows.
+	 * Should be called once all records are added.
+	 *
+	 * @param keepDictionaries: boolean: true  - the dictionaries stay in heap, so records can still be added (see isExtendable)
+	 * 									 false - the dictionaries are dropped, they hold every distinct value of the table
+	 */
+	public void trim(boolean keepDictionaries) {
+		for(int c = 0; c < numColumns; c++) {
+			if(columns[c].length != numRows) {
+				int[] column = new int[numRows];
+				System.arraycopy(columns[c], 0, column, 0, numRows);
+				columns[c] = column;
+			}
+		}
+		if(!keepDictionaries && dictionaries != null) {
+			distinctCounts = new int[numColumns];
+			for(int c = 0; c < numColumns; c++) {
+				distinctCounts[c] = dictionaries[c].size();
+			}
+			dictionaries = null;
+		}
+	}
+
+	/***
+	 * @return boolean: true, if records can be added (i.e. the dictionaries are known)
+	 */
+	public boolean isExtendable() {
+		return dictionaries != null;
+	}
+
+	@Override
+	public EncodedColumn getColumn(int column) {
+		return new ArrayColumn(columns[column], numRows);
+	}
+
+	@Override
+	public int getDistinctCount(int column) {
+		return dictionaries == null ? distinctCounts[column] : dictionaries[column].size();
+	}
+
+	@Override
+	public int getNullCount(int column) {
+		return nullCounts[column];
+	}
+
+	@Override
+	public int getNumColumns() {
+		return numColumns;
+	}
+
+	@Override
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/***
+	 * Column view of an int array (the array may be longer than the number of rows until trim() is called).
+	 */
+	private static class ArrayColumn implements EncodedColumn {
+
+		private final int[] values;
+		private final int size;
+
+		ArrayColumn(int[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		public int get(int row) {
+			return values[row];
+		}
+
+		@Override
+		public void gather(int[] rows, int length, int[] values) {
+			ValueKernel.get().gather(this.values, rows, length, values);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/***
+ * Dictionary of one column: maps each distinct value to its id.
+ * Null values always get NULL_ID (0), the ids of real values start with 1.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class Dictionary {
+
+	private final Map<String, Integer> ids = new HashMap<String, Integer>();
+
+	/***
+	 * Returns the id of a value. If the value is unknown, it gets the next free id.
+	 *
+	 * @param value: String: value (may be null)
+	 *
+	 * @return int: value id
+	 */
+	int encode(String value) {
+		if(value == null) return ColumnStore.NULL_ID;
+		Integer id = ids.get(value);
+		if(id == null) {
+			// ids start with 1, because 0 is reserved for null
+			id = Integer.valueOf(ids.size() + 1);
+			ids.put(value, id);
+		}
+		return id.intValue();
+	}
+
+	/***
+	 * @return int: number of distinct non-null values
+	 */
+	int size() {
+		return ids.size();
+	}
+}
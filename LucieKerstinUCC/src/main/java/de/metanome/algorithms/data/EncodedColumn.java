@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+/***
+ * Value ids of one dictionary-encoded column.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public interface EncodedColumn {
+
+	/***
+	 * @param row: int: row id
+	 *
+	 * @return int: value id of the row (NULL_ID for null values)
+	 */
+	int get(int row);
+
+	/***
+	 * Looks up the value ids of several rows at once (see ValueKernel.gather).
+	 *
+	 * @param rows: int[]: row ids
+	 * @param length: int: number of row ids to look up
+	 * @param values: int[]: array for the value ids (at least length)
+	 */
+	void gather(int[] rows, int length, int[] values);
+
+	/***
+	 * @return int: number of rows
+	 */
+	int size();
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+/***
+ * Dictionary-encoded columns of a table, either in heap (ColumnStore) or in memory-mapped files (MappedColumnStore).
+ * The uniqueness checks only read the columns through this interface,
+ * so they do not depend on where the value ids are stored.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public interface EncodedColumns {
+
+	/***
+	 * @param column: int: column index
+	 *
+	 * @return EncodedColumn: value ids of the column
+	 */
+	EncodedColumn getColumn(int column);
+
+	/***
+	 * @param column: int: column index
+	 *
+	 * @return int: number of distinct non-null values of the column (the highest value id)
+	 */
+	int getDistinctCount(int column);
+
+	/***
+	 * Null values are equal to each other, so a column with nulls has one distinct value more than its distinct count.
+	 *
+	 * @param column: int: column index
+	 *
+	 * @return int: number of null values of the column
+	 */
+	int getNullCount(int column);
+
+	int getNumColumns();
+
+	int getNumRows();
+}
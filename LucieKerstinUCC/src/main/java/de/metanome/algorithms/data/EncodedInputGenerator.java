@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import java.util.List;
+
+import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+
+/***
+ * Input generator that delivers the table dictionary-encoded already (e.g. parsed and encoded by several threads).
+ * The algorithm takes the encoded columns instead of reading and encoding the records one by one.
+ * Other Metanome algorithms can still read the records of generateNewCopy().
+ *
+ * As for a RelationalInput, the column names are not part of the data: the encoded columns hold
+ * the same records as generateNewCopy() and getColumnNames() the same names as its columnNames().
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public interface EncodedInputGenerator extends RelationalInputGenerator {
+
+	/***
+	 * @return String: name of the table
+	 */
+	String getRelationName();
+
+	/***
+	 * @return List<String>: names of the columns, e.g. from the header of the file or generated
+	 *
+	 * @throws InputGenerationException
+	 */
+	List<String> getColumnNames() throws InputGenerationException;
+
+	/***
+	 * @return EncodedColumns: encoded columns of all data records
+	 *
+	 * @throws InputGenerationException
+	 */
+	EncodedColumns generateEncodedColumns() throws InputGenerationException;
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/***
+ * Identity of an input file: its canonical path, its size and the CRC32 checksum of its content.
+ * Files that are derived from the input (spilled columns, snapshots, checkpoints) store the key,
+ * so they are only reused as long as the input file is unchanged.
+ *
+ * The checksum needs to read the whole file, so it is computed once and only when the path and the size match.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class InputKey {
+
+	// size of the read buffer for the checksum (in bytes)
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final File input;
+	private long checksum = -1;
+
+	/***
+	 * @param input: File: input file of the table
+	 */
+	public InputKey(File input) {
+		this.input = input;
+	}
+
+	/***
+	 * @param path: String: stored canonical path
+	 * @param length: long: stored size in bytes
+	 * @param checksum: long: stored checksum
+	 *
+	 * @return boolean: true, if the stored key is the key of the input file
+	 *
+	 * @throws IOException
+	 */
+	public boolean matches(String path, long length, long checksum) throws IOException {
+		return getPath().equals(path) && length == getLength() && checksum == getChecksum();
+	}
+
+	public String getPath() throws IOException {
+		return input.getCanonicalPath();
+	}
+
+	public long getLength() {
+		return input.length();
+	}
+
+	/***
+	 * @return long: CRC32 checksum of the content of the input file (computed once)
+	 *
+	 * @throws IOException
+	 */
+	public long getChecksum() throws IOException {
+		if(checksum < 0) {
+			CRC32 crc = new CRC32();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			InputStream in = new FileInputStream(input);
+			try {
+				for(int length = in.read(buffer); length >= 0; length = in.read(buffer)) {
+					crc.update(buffer, 0, length);
+				}
+			} finally {
+				in.close();
+			}
+			checksum = crc.getValue();
+		}
+		return checksum;
+	}
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Properties;
+
+/***
+ * Dictionary-encoded column store in memory-mapped files (one file per column).
+ * The value ids are written to the files while the table is read, so the columns never have to fit into the heap.
+ * Afterwards the files are mapped (FileChannel.map), i.e. the operating system pages the value ids in and out.
+ *
+ * Only the dictionaries are in heap while the table is read (one entry per distinct value);
+ * they are not needed afterwards and are dropped by finish().
+ *
+ * The store is complete, when its metadata file exists (it is written last).
+ * A complete store can be opened again, so a second run on the same table does not have to encode it again.
+ * The metadata contains the key of the input file (see InputKey): a store of a changed input file is not opened.
+ *
+ * Limit: a column file has at most Integer.MAX_VALUE bytes, i.e. about 500 million rows.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class MappedColumnStore implements EncodedColumns {
+
+	private static final String METADATA_FILE = "columns.properties";
+	// size of the write buffer of each column (in bytes)
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final File directory;
+	private final int numColumns;
+	private int numRows = 0;
+	private final int[] distinctCounts;
+	private final int[] nullCounts;
+
+	// only used while the table is read
+	private Dictionary[] dictionaries;
+	private FileChannel[] channels;
+	private ByteBuffer[] buffers;
+
+	// mapped columns (after finish or open)
+	private MappedColumn[] columns = null;
+
+	private MappedColumnStore(File directory, int numColumns) {
+		this.directory = directory;
+		this.numColumns = numColumns;
+		this.distinctCounts = new int[numColumns];
+		this.nullCounts = new int[numColumns];
+	}
+
+	/***
+	 * Creates a new, empty store. Old files of the directory (e.g. of an older version of the table) are deleted.
+	 *
+	 * @param directory: File: directory of the column files (is created if necessary)
+	 * @param numColumns: int: number of columns of the table
+	 *
+	 * @return MappedColumnStore: store that records can be added to
+	 *
+	 * @throws IOException
+	 */
+	public static MappedColumnStore create(File directory, int numColumns) throws IOException {
+		clear(directory);
+
+		MappedColumnStore store = new MappedColumnStore(directory, numColumns);
+		store.dictionaries = new Dictionary[numColumns];
+		store.channels = new FileChannel[numColumns];
+		store.buffers = new ByteBuffer[numColumns];
+		try {
+			for(int c = 0; c < numColumns; c++) {
+				store.dictionaries[c] = new Dictionary();
+				store.channels[c] = new FileOutputStream(store.getColumnFile(c)).getChannel();
+				store.buffers[c] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			}
+		} catch(IOException e) {
+			store.close();
+			throw e;
+		}
+		return store;
+	}
+
+	/***
+	 * Writes columns that are encoded already (e.g. in heap) to a new store.
+	 * Old files of the directory are deleted.
+	 *
+	 * @param directory: File: directory of the column files (is created if necessary)
+	 * @param source: EncodedColumns: encoded table
+	 * @param columnNames: List<String>: column names of the table (to recognize the table in later runs)
+	 * @param key: InputKey: key of the input file (null = unknown input, the store is never opened again)
+	 *
+	 * @return MappedColumnStore: mapped store with the same value ids as the source
+	 *
+	 * @throws IOException
+	 */
+	public static MappedColumnStore write(File directory, EncodedColumns source, List<String> columnNames, InputKey key) throws IOException {
+		clear(directory);
+
+		MappedColumnStore store = new MappedColumnStore(directory, source.getNumColumns());
+		store.numRows = source.getNumRows();
+		for(int c = 0; c < store.numColumns; c++) {
+			store.distinctCounts[c] = source.getDistinctCount(c);
+			store.nullCounts[c] = source.getNullCount(c);
+			EncodedColumn column = source.getColumn(c);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(store.getColumnFile(c)), BUFFER_SIZE));
+			try {
+				for(int row = 0; row < store.numRows; row++) {
+					out.writeInt(column.get(row));
+				}
+			} finally {
+				out.close();
+			}
+		}
+		store.writeMetadata(columnNames, key);
+		store.map();
+		return store;
+	}
+
+	/***
+	 * Creates the directory or deletes its files, so the store is incomplete until its metadata is written again.
+	 */
+	private static void clear(File directory) throws IOException {
+		if(!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create directory " + directory);
+		}
+		for(File file: directory.listFiles()) {
+			if(file.isFile() && !file.delete()) {
+				throw new IOException("Could not delete " + file);
+			}
+		}
+	}
+
+	/***
+	 * Opens a complete store of an earlier run.
+	 *
+	 * @param directory: File: directory of the column files
+	 * @param columnNames: List<String>: column names of the table (must be the same as in the earlier run)
+	 * @param key: InputKey: key of the input file (must be the same as in the earlier run, null = unknown input)
+	 *
+	 * @return MappedColumnStore: mapped store or null, if there is no complete store of the unchanged input
+	 *
+	 * @throws IOException
+	 */
+	public static MappedColumnStore open(File directory, List<String> columnNames, InputKey key) throws IOException {
+		File metadataFile = new File(directory, METADATA_FILE);
+		if(key == null || !metadataFile.isFile()) return null;
+
+		Properties metadata = new Properties();
+		InputStream in = new FileInputStream(metadataFile);
+		try {
+			metadata.load(in);
+		} finally {
+			in.close();
+		}
+		if(!String.valueOf(columnNames).equals(metadata.getProperty("columnNames"))) return null;
+		// stores of older versions have no input key
+		String length = metadata.getProperty("input.length");
+		String checksum = metadata.getProperty("input.checksum");
+		if(length == null || checksum == null) return null;
+		if(!key.matches(metadata.getProperty("input.path"), Long.parseLong(length), Long.parseLong(checksum))) return null;
+
+		MappedColumnStore store = new MappedColumnStore(directory, columnNames.size());
+		store.numRows = Integer.parseInt(metadata.getProperty("numRows"));
+		for(int c = 0; c < store.numColumns; c++) {
+			// stores of older versions have no null counts
+			String nullCount = metadata.getProperty("nullCount." + c);
+			if(nullCount == null) return null;
+			store.nullCounts[c] = Integer.parseInt(nullCount);
+			store.distinctCounts[c] = Integer.parseInt(metadata.getProperty("distinctCount." + c));
+			if(store.getColumnFile(c).length() != 4L * store.numRows) return null;
+		}
+		store.map();
+		return store;
+	}
+
+	/***
+	 * Encodes a record and appends it to the column files.
+	 * Missing values (record is shorter than the schema) are treated as null.
+	 *
+	 * @param record: List<String>: values of one row
+	 *
+	 * @throws IOException
+	 */
+	public void add(List<String> record) throws IOException {
+		for(int c = 0; c < numColumns; c++) {
+			String value = c < record.size() ? record.get(c) : null;
+			ByteBuffer buffer = buffers[c];
+			if(!buffer.hasRemaining()) {
+				flush(c);
+			}
+			buffer.putInt(dictionaries[c].encode(value));
+			if(value == null) {
+				nullCounts[c]++;
+			}
+		}
+		numRows++;
+	}
+
+	/***
+	 * Writes the rest of the value ids and the metadata, drops the dictionaries and maps the column files.
+	 * Should be called once all records are added.
+	 *
+	 * @param columnNames: List<String>: column names of the table (to recognize the table in later runs)
+	 * @param key: InputKey: key of the input file (null = unknown input, the store is never opened again)
+	 *
+	 * @throws IOException
+	 */
+	public void finish(List<String> columnNames, InputKey key) throws IOException {
+		try {
+			for(int c = 0; c < numColumns; c++) {
+				flush(c);
+				distinctCounts[c] = dictionaries[c].size();
+			}
+		} finally {
+			close();
+		}
+		dictionaries = null;
+		buffers = null;
+
+		writeMetadata(columnNames, key);
+		map();
+	}
+
+	private void writeMetadata(List<String> columnNames, InputKey key) throws IOException {
+		Properties metadata = new Properties();
+		metadata.setProperty("columnNames", String.valueOf(columnNames));
+		if(key != null) {
+			metadata.setProperty("input.path", key.getPath());
+			metadata.setProperty("input.length", String.valueOf(key.getLength()));
+			metadata.setProperty("input.checksum", String.valueOf(key.getChecksum()));
+		}
+		metadata.setProperty("numRows", String.valueOf(numRows));
+		for(int c = 0; c < numColumns; c++) {
+			metadata.setProperty("distinctCount." + c, String.valueOf(distinctCounts[c]));
+			metadata.setProperty("nullCount." + c, String.valueOf(nullCounts[c]));
+		}
+		OutputStream out = new FileOutputStream(new File(directory, METADATA_FILE));
+		try {
+			metadata.store(out, null);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void flush(int column) throws IOException {
+		ByteBuffer buffer = buffers[column];
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channels[column].write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/***
+	 * Closes the column files, if the store is not finished (e.g. because reading the table failed).
+	 *
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		if(channels == null) return;
+		IOException exception = null;
+		for(FileChannel channel: channels) {
+			if(channel == null) continue;
+			try {
+				channel.close();
+			} catch(IOException e) {
+				exception = e;
+			}
+		}
+		channels = null;
+		if(exception != null) throw exception;
+	}
+
+	private void map() throws IOException {
+		columns = new MappedColumn[numColumns];
+		for(int c = 0; c < numColumns; c++) {
+			RandomAccessFile file = new RandomAccessFile(getColumnFile(c), "r");
+			try {
+				// the mapping stays valid after the file is closed
+				IntBuffer values = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, 4L * numRows).asIntBuffer();
+				columns[c] = new MappedColumn(values);
+			} finally {
+				file.close();
+			}
+		}
+	}
+
+	private File getColumnFile(int column) {
+		return new File(directory, "column" + column + ".bin");
+	}
+
+	/***
+	 * @return File: directory of the column files
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public EncodedColumn getColumn(int column) {
+		return columns[column];
+	}
+
+	@Override
+	public int getDistinctCount(int column) {
+		return distinctCounts[column];
+	}
+
+	@Override
+	public int getNullCount(int column) {
+		return nullCounts[column];
+	}
+
+	@Override
+	public int getNumColumns() {
+		return numColumns;
+	}
+
+	@Override
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/***
+	 * Column view of a mapped file.
+	 * Only absolute reads are used, so the column can be read by several threads at once.
+	 */
+	private static class MappedColumn implements EncodedColumn {
+
+		private final IntBuffer values;
+
+		MappedColumn(IntBuffer values) {
+			this.values = values;
+		}
+
+		@Override
+		public int get(int row) {
+			return values.get(row);
+		}
+
+		@Override
+		public void gather(int[] rows, int length, int[] values) {
+			// note: a mapped buffer has no array for the vectorized kernel
+			for(int i = 0; i < length; i++) {
+				values[i] = this.values.get(rows[i]);
+			}
+		}
+
+		@Override
+		public int size() {
+			return values.limit();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import java.util.Arrays;
+
+/***
+ * Inverted index of a column: the ids of all rows with a given value id.
+ * Unlike a PLI, the index also contains single rows and can be changed, when rows are added or deleted.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class ValueIndex {
+
+	private static final int INITIAL_CAPACITY = 4;
+
+	// rows[v]: ids of the rows with value id v (only the first counts[v] entries are used)
+	private int[][] rows;
+	private int[] counts;
+
+	/***
+	 * @param column: EncodedColumn: value ids of the column
+	 * @param distinctCount: int: highest value id of the column
+	 */
+	public ValueIndex(EncodedColumn column, int distinctCount) {
+		counts = new int[distinctCount + 1];
+		for(int r = 0, limit = column.size(); r < limit; r++) {
+			counts[column.get(r)]++;
+		}
+		rows = new int[counts.length][];
+		for(int v = 0; v < counts.length; v++) {
+			rows[v] = new int[Math.max(INITIAL_CAPACITY, counts[v])];
+		}
+		Arrays.fill(counts, 0);
+		for(int r = 0, limit = column.size(); r < limit; r++) {
+			int value = column.get(r);
+			rows[value][counts[value]++] = r;
+		}
+	}
+
+	/***
+	 * @param value: int: value id (may be a new value id)
+	 * @param row: int: id of the new row
+	 */
+	public void add(int value, int row) {
+		if(value >= rows.length) {
+			int capacity = Math.max(value + 1, rows.length * 2);
+			rows = Arrays.copyOf(rows, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+		}
+		if(rows[value] == null) {
+			rows[value] = new int[INITIAL_CAPACITY];
+		} else if(counts[value] == rows[value].length) {
+			rows[value] = Arrays.copyOf(rows[value], counts[value] * 2);
+		}
+		rows[value][counts[value]++] = row;
+	}
+
+	/***
+	 * @param value: int: value id of the row
+	 * @param row: int: id of the deleted row
+	 */
+	public void remove(int value, int row) {
+		int[] valueRows = rows[value];
+		for(int i = 0; i < counts[value]; i++) {
+			if(valueRows[i] == row) {
+				// keep the rows in order
+				System.arraycopy(valueRows, i + 1, valueRows, i, counts[value] - i - 1);
+				counts[value]--;
+				return;
+			}
+		}
+	}
+
+	/***
+	 * @param value: int: value id
+	 *
+	 * @return int: number of rows with the value
+	 */
+	public int getCount(int value) {
+		return value < counts.length ? counts[value] : 0;
+	}
+
+	/***
+	 * @param value: int: value id (with at least one row)
+	 *
+	 * @return int[]: ids of the rows with the value (only the first getCount(value) entries are valid)
+	 */
+	public int[] getRows(int value) {
+		return rows[value];
+	}
+
+	/***
+	 * @return int: number of value ids the index has room for (value ids are smaller)
+	 */
+	public int getNumValues() {
+		return counts.length;
+	}
+}
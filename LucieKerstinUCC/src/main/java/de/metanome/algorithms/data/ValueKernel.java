@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+/***
+ * Batch kernels over value ids, for the inner loop of each uniqueness check:
+ * 	- gather: look up the value ids of a cluster's rows in a column
+ * 	- hash:   compute the first probe slot of each value id (see ProbeTable)
+ *
+ * The scalar kernel works everywhere. On Java 17+ with the module jdk.incubator.vector
+ * (java --add-modules jdk.incubator.vector), the vectorized kernel of src/main/java17 is used instead.
+ * It is compiled by the Maven profile "vector" and loaded by name, so this class does not depend on it
+ * and the algorithm still runs on older JVMs or without the module.
+ * The system property de.metanome.algorithms.vector=false turns it off.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public abstract class ValueKernel {
+
+	// multiplier of the probe hash (golden ratio), the upper bits are folded into the lower ones
+	protected static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+	private static final ValueKernel SCALAR = new ScalarKernel();
+	private static final ValueKernel INSTANCE = load();
+
+	/***
+	 * @return ValueKernel: vectorized kernel, if it is available, otherwise the scalar kernel
+	 */
+	public static ValueKernel get() {
+		return INSTANCE;
+	}
+
+	/***
+	 * @return ValueKernel: scalar kernel (the reference for the vectorized one)
+	 */
+	static ValueKernel scalar() {
+		return SCALAR;
+	}
+
+	private static ValueKernel load() {
+		if("false".equals(System.getProperty("de.metanome.algorithms.vector"))) return SCALAR;
+		try {
+			return (ValueKernel) Class.forName("de.metanome.algorithms.data.VectorValueKernel").getDeclaredConstructor().newInstance();
+		} catch(Exception e) {
+			// not compiled (profile "vector" inactive) or no int vectors on this CPU
+			return SCALAR;
+		} catch(LinkageError e) {
+			// older JVM or the module jdk.incubator.vector is not added
+			return SCALAR;
+		}
+	}
+
+	/***
+	 * @param value: int: value id
+	 *
+	 * @return int: probe hash of the value id (not masked)
+	 */
+	public static int hash(int value) {
+		int hash = value * HASH_MULTIPLIER;
+		return hash ^ (hash >>> 16);
+	}
+
+	/***
+	 * Looks up the value ids of the given rows: values[i] = column[rows[i]].
+	 *
+	 * @param column: int[]: value ids of a column
+	 * @param rows: int[]: row ids
+	 * @param length: int: number of row ids to look up
+	 * @param values: int[]: array for the value ids (at least length)
+	 */
+	public abstract void gather(int[] column, int[] rows, int length, int[] values);
+
+	/***
+	 * Computes the masked probe hash of each value id: slots[i] = hash(values[i]) & mask.
+	 *
+	 * @param values: int[]: value ids
+	 * @param length: int: number of value ids
+	 * @param mask: int: table size - 1 (the size is a power of two)
+	 * @param slots: int[]: array for the slots (at least length)
+	 */
+	public abstract void hash(int[] values, int length, int mask, int[] slots);
+
+	/***
+	 * @return String: name of the kernel, e.g. for the statistics of a run
+	 */
+	public abstract String getName();
+
+	private static class ScalarKernel extends ValueKernel {
+
+		@Override
+		public void gather(int[] column, int[] rows, int length, int[] values) {
+			for(int i = 0; i < length; i++) {
+				values[i] = column[rows[i]];
+			}
+		}
+
+		@Override
+		public void hash(int[] values, int length, int mask, int[] slots) {
+			for(int i = 0; i < length; i++) {
+				slots[i] = hash(values[i]) & mask;
+			}
+		}
+
+		@Override
+		public String getName() {
+			return "scalar";
+		}
+	}
+}
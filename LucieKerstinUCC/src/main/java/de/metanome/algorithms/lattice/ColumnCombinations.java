@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.lattice;
+
+import java.util.BitSet;
+import java.util.Comparator;
+
+/***
+ * Helper methods for column combinations (cc's).
+ * A cc is represented as a BitSet: bit c is set, if column c is part of the cc.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class ColumnCombinations {
+
+	/***
+	 * Orders cc's lexicographically by their sorted column indices,
+	 * e.g. [0, 1] < [0, 1, 2] < [0, 2] < [1].
+	 * In that way, cc's with the same prefix are next to each other.
+	 */
+	public static final Comparator<BitSet> LEXICOGRAPHIC = new Comparator<BitSet>() {
+		@Override
+		public int compare(BitSet first, BitSet second) {
+			int i = first.nextSetBit(0);
+			int j = second.nextSetBit(0);
+			while(i >= 0 && j >= 0) {
+				if(i != j) return i < j ? -1 : 1;
+				i = first.nextSetBit(i + 1);
+				j = second.nextSetBit(j + 1);
+			}
+			if(i == j) return 0;
+			return i < 0 ? -1 : 1;
+		}
+	};
+
+	/***
+	 * Orders cc's by their number of columns first and lexicographically within the same size.
+	 */
+	public static final Comparator<BitSet> BY_SIZE = new Comparator<BitSet>() {
+		@Override
+		public int compare(BitSet first, BitSet second) {
+			int compare = first.cardinality() - second.cardinality();
+			if(compare != 0) return compare;
+			return LEXICOGRAPHIC.compare(first, second);
+		}
+	};
+
+	private ColumnCombinations() {
+	}
+
+	/***
+	 * @param columns: int...: column indices
+	 *
+	 * @return BitSet: cc of the given columns
+	 */
+	public static BitSet of(int... columns) {
+		BitSet cc = new BitSet();
+		for(int c: columns) {
+			cc.set(c);
+		}
+		return cc;
+	}
+
+	/***
+	 * @param cc: BitSet: column combination (not empty)
+	 *
+	 * @return int: index of the last (highest) column of the cc
+	 */
+	public static int lastColumn(BitSet cc) {
+		return cc.length() - 1;
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 * @param column: int: column index
+	 *
+	 * @return BitSet: new cc without the given column
+	 */
+	public static BitSet without(BitSet cc, int column) {
+		BitSet subset = (BitSet) cc.clone();
+		subset.clear(column);
+		return subset;
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 * @param column: int: column index
+	 *
+	 * @return BitSet: new cc with the given column
+	 */
+	public static BitSet with(BitSet cc, int column) {
+		BitSet superset = (BitSet) cc.clone();
+		superset.set(column);
+		return superset;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.lattice;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/***
+ * Prefix tree (set-trie) of column combinations.
+ * Each cc is stored as the path of its sorted column indices, e.g. [0, 2, 5] as 0 -> 2 -> 5.
+ * Cc's with a common prefix share their nodes.
+ *
+ * The trie answers "is any stored cc a subset of X" without looking at every stored cc:
+ * only paths that consist of columns of X are followed.
+ * In the same way, it answers "is any stored cc a superset of X":
+ * only paths that contain all columns of X (in order) are followed.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class SetTrie {
+
+	private final int numColumns;
+	private final Node root;
+	private int size = 0;
+
+	private static class Node {
+		// children indexed by column (created on demand)
+		Node[] children = null;
+		// the cc that ends at this node (or null)
+		BitSet cc = null;
+	}
+
+	/***
+	 * @param numColumns: int: number of columns of the table
+	 */
+	public SetTrie(int numColumns) {
+		this.numColumns = numColumns;
+		this.root = new Node();
+	}
+
+	/***
+	 * Adds a cc to the trie.
+	 *
+	 * @param cc: BitSet: column combination (must not be changed afterwards)
+	 */
+	public void add(BitSet cc) {
+		Node node = root;
+		for(int c = cc.nextSetBit(0); c >= 0; c = cc.nextSetBit(c + 1)) {
+			if(node.children == null) {
+				node.children = new Node[numColumns];
+			}
+			if(node.children[c] == null) {
+				node.children[c] = new Node();
+			}
+			node = node.children[c];
+		}
+		if(node.cc == null) {
+			node.cc = cc;
+			size++;
+		}
+	}
+
+	/***
+	 * Removes a cc from the trie (if it is stored).
+	 * Note: empty nodes are kept, so they can be reused.
+	 *
+	 * @param cc: BitSet: column combination
+	 */
+	public void remove(BitSet cc) {
+		Node node = root;
+		for(int c = cc.nextSetBit(0); c >= 0 && node != null; c = cc.nextSetBit(c + 1)) {
+			node = node.children == null ? null : node.children[c];
+		}
+		if(node != null && node.cc != null) {
+			node.cc = null;
+			size--;
+		}
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return boolean: true, if the cc itself is stored
+	 */
+	public boolean contains(BitSet cc) {
+		Node node = root;
+		for(int c = cc.nextSetBit(0); c >= 0 && node != null; c = cc.nextSetBit(c + 1)) {
+			node = node.children == null ? null : node.children[c];
+		}
+		return node != null && node.cc != null;
+	}
+
+	/***
+	 * Checks if the trie contains a subset of the given cc (or the cc itself).
+	 *
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return boolean: true  - a stored cc is a subset of the given cc
+	 * 					 false - no stored cc is a subset of the given cc
+	 */
+	public boolean containsSubsetOf(BitSet cc) {
+		return containsSubsetOf(root, cc, 0);
+	}
+
+	private boolean containsSubsetOf(Node node, BitSet cc, int from) {
+		if(node.cc != null) return true;
+		if(node.children == null) return false;
+
+		// only follow children that are columns of the cc
+		for(int c = cc.nextSetBit(from); c >= 0; c = cc.nextSetBit(c + 1)) {
+			Node child = node.children[c];
+			if(child != null && containsSubsetOf(child, cc, c + 1)) return true;
+		}
+		return false;
+	}
+
+	/***
+	 * Checks if the trie contains a superset of the given cc (or the cc itself).
+	 *
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return boolean: true  - a stored cc is a superset of the given cc
+	 * 					 false - no stored cc is a superset of the given cc
+	 */
+	public boolean containsSupersetOf(BitSet cc) {
+		return containsSupersetOf(root, cc, cc.nextSetBit(0));
+	}
+
+	private boolean containsSupersetOf(Node node, BitSet cc, int required) {
+		// all columns of the cc are on the path: any stored cc below is a superset
+		if(required < 0) return containsAny(node);
+		if(node.children == null) return false;
+
+		// columns before the next required column may be skipped, later ones may not
+		for(int c = 0; c <= required; c++) {
+			Node child = node.children[c];
+			if(child == null) continue;
+			int nextRequired = c == required ? cc.nextSetBit(c + 1) : required;
+			if(containsSupersetOf(child, cc, nextRequired)) return true;
+		}
+		return false;
+	}
+
+	private boolean containsAny(Node node) {
+		if(node.cc != null) return true;
+		if(node.children == null) return false;
+
+		for(Node child: node.children) {
+			if(child != null && containsAny(child)) return true;
+		}
+		return false;
+	}
+
+	/***
+	 * Collects all stored subsets of the given cc (including the cc itself).
+	 *
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return List<BitSet>: stored cc's that are subsets of the given cc
+	 */
+	public List<BitSet> getSubsetsOf(BitSet cc) {
+		List<BitSet> subsets = new ArrayList<BitSet>();
+		collectSubsetsOf(root, cc, 0, subsets);
+		return subsets;
+	}
+
+	private void collectSubsetsOf(Node node, BitSet cc, int from, List<BitSet> subsets) {
+		if(node.cc != null) subsets.add(node.cc);
+		if(node.children == null) return;
+
+		for(int c = cc.nextSetBit(from); c >= 0; c = cc.nextSetBit(c + 1)) {
+			Node child = node.children[c];
+			if(child != null) collectSubsetsOf(child, cc, c + 1, subsets);
+		}
+	}
+
+	/***
+	 * @return List<BitSet>: all stored cc's in lexicographic order
+	 */
+	public List<BitSet> getAll() {
+		List<BitSet> all = new ArrayList<BitSet>();
+		collectAll(root, all);
+		return all;
+	}
+
+	private void collectAll(Node node, List<BitSet> all) {
+		if(node.cc != null) all.add(node.cc);
+		if(node.children == null) return;
+
+		for(Node child: node.children) {
+			if(child != null) collectAll(child, all);
+		}
+	}
+
+	/***
+	 * @return int: number of stored cc's
+	 */
+	public int size() {
+		return size;
+	}
+}
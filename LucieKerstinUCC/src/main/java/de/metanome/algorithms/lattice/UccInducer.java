@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.lattice;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/***
+ * Deduces the candidates for minimal ucc's from known non-unique cc's.
+ *
+ * A cc is a candidate, if it is no subset of any known non-unique cc
+ * and none of its subsets is a candidate (minimality).
+ * At the beginning, all single columns are candidates.
+ * Each new non-unique cc invalidates all candidates that are its subsets;
+ * they are specialized by adding one column that is not part of the non-unique cc.
+ *
+ * If all non-unique cc's of a table are known, the candidates are exactly the minimal ucc's.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class UccInducer {
+
+	private final int numColumns;
+	private final SetTrie candidates;
+
+	/***
+	 * @param numColumns: int: number of columns of the table
+	 */
+	public UccInducer(int numColumns) {
+		this.numColumns = numColumns;
+		this.candidates = new SetTrie(numColumns);
+		for(int c = 0; c < numColumns; c++) {
+			candidates.add(ColumnCombinations.of(c));
+		}
+	}
+
+	/***
+	 * Starts with known candidates, e.g. the minimal ucc's of an earlier version of the table.
+	 * New non-unique cc's then only specialize these candidates.
+	 *
+	 * @param numColumns: int: number of columns of the table
+	 * @param candidates: Collection<BitSet>: minimal candidates (none is a subset of another)
+	 */
+	public UccInducer(int numColumns, Collection<BitSet> candidates) {
+		this.numColumns = numColumns;
+		this.candidates = new SetTrie(numColumns);
+		for(BitSet cc: candidates) {
+			this.candidates.add(cc);
+		}
+	}
+
+	/***
+	 * Adds a non-unique cc and specializes all candidates that are its subsets.
+	 *
+	 * @param nonunique: BitSet: non-unique cc (e.g. the agree set of two rows)
+	 *
+	 * @return int: number of invalidated candidates
+	 */
+	public int addNonUnique(BitSet nonunique) {
+		List<BitSet> invalid = candidates.getSubsetsOf(nonunique);
+		if(invalid.isEmpty()) return 0;
+
+		for(BitSet cc: invalid) {
+			candidates.remove(cc);
+		}
+
+		// specialize the smallest cc's first
+		Collections.sort(invalid, ColumnCombinations.BY_SIZE);
+		for(BitSet cc: invalid) {
+			for(int c = nonunique.nextClearBit(0); c < numColumns; c = nonunique.nextClearBit(c + 1)) {
+				BitSet specialization = ColumnCombinations.with(cc, c);
+				// only minimal candidates are kept
+				if(!candidates.containsSubsetOf(specialization)) {
+					candidates.add(specialization);
+				}
+			}
+		}
+		return invalid.size();
+	}
+
+	/***
+	 * @param cc: BitSet: column combination
+	 *
+	 * @return boolean: true, if the cc is a current candidate
+	 */
+	public boolean isCandidate(BitSet cc) {
+		return candidates.contains(cc);
+	}
+
+	/***
+	 * @return List<BitSet>: current candidates, ordered by size (and lexicographically within a size)
+	 */
+	public List<BitSet> getCandidates() {
+		List<BitSet> all = candidates.getAll();
+		Collections.sort(all, ColumnCombinations.BY_SIZE);
+		return all;
+	}
+}
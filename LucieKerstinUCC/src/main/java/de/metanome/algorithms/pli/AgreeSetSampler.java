@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.metanome.algorithms.data.EncodedColumn;
+import de.metanome.algorithms.data.EncodedColumns;
+
+/***
+ * Compares pairs of rows to find non-unique cc's cheaply.
+ * The agree set of two rows contains all columns in which both rows have the same value.
+ * Each agree set is a non-unique cc (the two rows are duplicates in it).
+ *
+ * Only pairs of rows from the same cluster of a single column PLI are compared,
+ * because all other pairs agree in no column that is not unique anyway.
+ * The pairs are chosen by their distance within a cluster: first neighbors (distance 1), then distance 2, ...
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class AgreeSetSampler {
+
+	private final EncodedColumns columns;
+	private final PositionListIndex[] columnPlis;
+	private final Set<BitSet> agreeSets = new HashSet<BitSet>();
+	private int distance = 0;
+	private int maxClusterSize = 0;
+	private long comparisons = 0;
+
+	/***
+	 * @param columns: EncodedColumns: encoded table
+	 * @param columnPlis: PositionListIndex[]: PLIs of all single columns
+	 */
+	public AgreeSetSampler(EncodedColumns columns, PositionListIndex[] columnPlis) {
+		this.columns = columns;
+		this.columnPlis = columnPlis;
+		for(PositionListIndex pli: columnPlis) {
+			for(int[] cluster: pli.getClusters()) {
+				maxClusterSize = Math.max(maxClusterSize, cluster.length);
+			}
+		}
+	}
+
+	/***
+	 * Compares all pairs of rows with the next distance within the clusters.
+	 *
+	 * @return List<BitSet>: agree sets that were not found before
+	 */
+	public List<BitSet> sample() {
+		List<BitSet> newAgreeSets = new ArrayList<BitSet>();
+		if(isExhausted()) return newAgreeSets;
+		distance++;
+		EncodedColumn[] encodedColumns = getColumns();
+
+		for(PositionListIndex pli: columnPlis) {
+			for(int[] cluster: pli.getClusters()) {
+				for(int i = 0; i + distance < cluster.length; i++) {
+					BitSet agreeSet = compare(encodedColumns, cluster[i], cluster[i + distance]);
+					if(agreeSet != null) {
+						newAgreeSets.add(agreeSet);
+					}
+				}
+			}
+		}
+		return newAgreeSets;
+	}
+
+	/***
+	 * Neighborhood pass with a budget: all rows of a cluster of a column PLI have the same value in this column,
+	 * so each row is compared with the next row of its cluster (in row id order). Such neighbors agree in this column
+	 * and probably in related ones.
+	 * Each column gets the same share of the budget; if it has more neighbor pairs, only every k-th pair is compared.
+	 * The distance of sample() is not changed.
+	 *
+	 * @param maxComparisons: long: maximum number of compared pairs
+	 *
+	 * @return List<BitSet>: agree sets that were not found before
+	 */
+	public List<BitSet> sampleNeighbors(long maxComparisons) {
+		List<BitSet> newAgreeSets = new ArrayList<BitSet>();
+		long columnBudget = Math.max(1, maxComparisons / Math.max(1, columnPlis.length));
+		EncodedColumn[] encodedColumns = getColumns();
+
+		for(PositionListIndex pli: columnPlis) {
+			// number of neighbor pairs = number of duplicates
+			long step = (pli.getNumDuplicates() + columnBudget - 1) / columnBudget;
+			long pair = 0;
+			for(int[] cluster: pli.getClusters()) {
+				for(int i = 0; i + 1 < cluster.length; i++, pair++) {
+					if(pair % step != 0) continue;
+					BitSet agreeSet = compare(encodedColumns, cluster[i], cluster[i + 1]);
+					if(agreeSet != null) {
+						newAgreeSets.add(agreeSet);
+					}
+				}
+			}
+		}
+		return newAgreeSets;
+	}
+
+	/***
+	 * Compares two rows, e.g. a pair of rows that violated a candidate during validation.
+	 *
+	 * @param row1: int: row id
+	 * @param row2: int: row id
+	 *
+	 * @return BitSet: agree set of the rows, if it was not found before (otherwise null)
+	 */
+	public BitSet compare(int row1, int row2) {
+		return compare(getColumns(), row1, row2);
+	}
+
+	private BitSet compare(EncodedColumn[] encodedColumns, int row1, int row2) {
+		comparisons++;
+		BitSet agreeSet = new BitSet(encodedColumns.length);
+		for(int c = 0; c < encodedColumns.length; c++) {
+			if(encodedColumns[c].get(row1) == encodedColumns[c].get(row2)) {
+				agreeSet.set(c);
+			}
+		}
+		return agreeSets.add(agreeSet) ? agreeSet : null;
+	}
+
+	/***
+	 * @return EncodedColumn[]: all columns of the table, fetched once per pass (getColumn may create a view)
+	 */
+	private EncodedColumn[] getColumns() {
+		EncodedColumn[] encodedColumns = new EncodedColumn[columns.getNumColumns()];
+		for(int c = 0; c < encodedColumns.length; c++) {
+			encodedColumns[c] = columns.getColumn(c);
+		}
+		return encodedColumns;
+	}
+
+	/***
+	 * @return boolean: true, if all pairs within the clusters were compared
+	 */
+	public boolean isExhausted() {
+		return distance + 1 >= maxClusterSize;
+	}
+
+	public long getComparisons() {
+		return comparisons;
+	}
+}
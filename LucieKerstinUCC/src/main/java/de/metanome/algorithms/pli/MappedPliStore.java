@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * PLIs of single columns in memory-mapped files (one file per column), next to a MappedColumnStore.
+ * In that way, the column PLIs do not have to stay in heap: a PLI is read from its file when it is needed
+ * (and may be cached in the PliCache like any other PLI).
+ *
+ * File format (ints): number of clusters, then for each cluster its size and its row ids.
+ * Each file is written to a temporary file first and renamed afterwards, so an existing file is always complete
+ * and can be reused by later runs.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class MappedPliStore {
+
+	private final File directory;
+	private final IntBuffer[] files;
+
+	/***
+	 * @param directory: File: directory of the PLI files
+	 * @param numColumns: int: number of columns of the table
+	 */
+	public MappedPliStore(File directory, int numColumns) {
+		this.directory = directory;
+		this.files = new IntBuffer[numColumns];
+	}
+
+	/***
+	 * Maps the PLI file of a column that was written by an earlier run.
+	 *
+	 * @param column: int: column index
+	 *
+	 * @return boolean: true  - the file exists and is mapped
+	 * 					 false - there is no PLI file of the column yet
+	 *
+	 * @throws IOException
+	 */
+	public boolean map(int column) throws IOException {
+		File file = getPliFile(column);
+		if(!file.isFile()) return false;
+
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			// the mapping stays valid after the file is closed
+			files[column] = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length()).asIntBuffer();
+		} finally {
+			in.close();
+		}
+		return true;
+	}
+
+	/***
+	 * Writes the PLI of a column to its file and maps it.
+	 *
+	 * @param column: int: column index
+	 * @param pli: PositionListIndex: PLI of the column
+	 *
+	 * @throws IOException
+	 */
+	public void write(int column, PositionListIndex pli) throws IOException {
+		File temporary = new File(directory, "pli" + column + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+		try {
+			out.writeInt(pli.getClusters().size());
+			for(int[] cluster: pli.getClusters()) {
+				out.writeInt(cluster.length);
+				for(int row: cluster) {
+					out.writeInt(row);
+				}
+			}
+		} finally {
+			out.close();
+		}
+
+		File file = getPliFile(column);
+		if(file.exists() && !file.delete() || !temporary.renameTo(file)) {
+			throw new IOException("Could not rename " + temporary + " to " + file);
+		}
+		map(column);
+	}
+
+	/***
+	 * Reads the PLI of a column from its mapped file into heap.
+	 *
+	 * @param column: int: column index (must be mapped)
+	 *
+	 * @return PositionListIndex: PLI of the column
+	 */
+	public PositionListIndex read(int column) {
+		// duplicate: own position, so several threads can read the same file
+		IntBuffer in = files[column].duplicate();
+		in.position(0);
+		int numClusters = in.get();
+		List<int[]> clusters = new ArrayList<int[]>(numClusters);
+		for(int i = 0; i < numClusters; i++) {
+			int[] cluster = new int[in.get()];
+			in.get(cluster);
+			clusters.add(cluster);
+		}
+		return new PositionListIndex(clusters);
+	}
+
+	private File getPliFile(int column) {
+		return new File(directory, "pli" + column + ".bin");
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/***
+ * Cache for the PLIs of column combinations, bounded by a memory budget (in bytes).
+ * The PLIs of the previous lattice level are needed to compute the PLIs of the next level.
+ * Lower-level PLIs stay in the cache as long as there is space left.
+ *
+ * If the budget is exceeded, PLIs are evicted:
+ * 	LRU        - the least recently used PLI first
+ * 	COST_AWARE - the PLI that is cheapest to recompute per byte first
+ * 				 (PLIs of small cc's are cheap, large PLIs free a lot of memory)
+ *
+ * The cache is shared by the threads that check a level, so get and put take no lock:
+ * the PLIs are kept in a concurrent map and each access stamps its entry with a tick of a shared clock (for LRU).
+ * A put that exceeds the budget evicts in one scan as many PLIs as needed. Only one thread scans at a time,
+ * the other threads do not wait for it, so the size may exceed the budget for the duration of a scan.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class PliCache {
+
+	public enum Eviction {
+		LRU, COST_AWARE
+	}
+
+	private static class Entry {
+		final BitSet key;
+		final PositionListIndex pli;
+		final long memorySize;
+		volatile long lastAccess;
+
+		Entry(BitSet key, PositionListIndex pli, long memorySize, long lastAccess) {
+			this.key = key;
+			this.pli = pli;
+			this.memorySize = memorySize;
+			this.lastAccess = lastAccess;
+		}
+
+		// recomputation cost grows with the number of columns, benefit with the memory size
+		double getScore() {
+			return (double) key.cardinality() / memorySize;
+		}
+	}
+
+	private static final Comparator<Entry> LEAST_RECENTLY_USED = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry first, Entry second) {
+			return first.lastAccess < second.lastAccess ? -1 : first.lastAccess == second.lastAccess ? 0 : 1;
+		}
+	};
+
+	private static final Comparator<Entry> CHEAPEST_PER_BYTE = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry first, Entry second) {
+			return Double.compare(first.getScore(), second.getScore());
+		}
+	};
+
+	private final long budget;
+	private final Eviction eviction;
+	private final ConcurrentHashMap<BitSet, Entry> entries = new ConcurrentHashMap<BitSet, Entry>();
+	private final AtomicLong size = new AtomicLong();
+	// logical time of the accesses (for LRU)
+	private final AtomicLong clock = new AtomicLong();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/***
+	 * @param budget: long: maximum memory size of all cached PLIs in bytes
+	 * @param eviction: Eviction: order in which PLIs are evicted
+	 */
+	public PliCache(long budget, Eviction eviction) {
+		this.budget = budget;
+		this.eviction = eviction;
+	}
+
+	/***
+	 * @param key: BitSet: column combination (must not be changed afterwards)
+	 *
+	 * @return PositionListIndex: cached PLI of the cc or null, if it is not cached
+	 */
+	public PositionListIndex get(BitSet key) {
+		Entry entry = entries.get(key);
+		if(entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		if(eviction == Eviction.LRU) {
+			entry.lastAccess = clock.incrementAndGet();
+		}
+		hits.incrementAndGet();
+		return entry.pli;
+	}
+
+	/***
+	 * Adds a PLI to the cache and evicts other PLIs, if the budget is exceeded.
+	 * PLIs that are larger than the whole budget are not cached at all.
+	 *
+	 * @param key: BitSet: column combination (must not be changed afterwards)
+	 * @param pli: PositionListIndex: PLI of the cc
+	 */
+	public void put(BitSet key, PositionListIndex pli) {
+		long pliSize = pli.getMemorySize();
+		if(pliSize > budget) return;
+
+		Entry old = entries.put(key, new Entry(key, pli, pliSize, clock.incrementAndGet()));
+		size.addAndGet(old == null ? pliSize : pliSize - old.memorySize);
+
+		// a thread that finds the lock taken leaves the eviction to its owner, which checks the size again afterwards
+		while(size.get() > budget && evictionLock.tryLock()) {
+			try {
+				evict();
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	/***
+	 * Evicts PLIs in eviction order until the size is within the budget again.
+	 */
+	private void evict() {
+		List<Entry> candidates = new ArrayList<Entry>(entries.values());
+		Collections.sort(candidates, eviction == Eviction.LRU ? LEAST_RECENTLY_USED : CHEAPEST_PER_BYTE);
+		for(Entry victim: candidates) {
+			if(size.get() <= budget) break;
+			// a PLI that was replaced in the meantime is not evicted
+			if(entries.remove(victim.key, victim)) {
+				size.addAndGet(-victim.memorySize);
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	public long getSize() {
+		return size.get();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.metanome.algorithms.data.EncodedColumn;
+import de.metanome.algorithms.data.EncodedColumns;
+
+/***
+ * Stripped position list index (PLI) of a column or column combination.
+ * A PLI groups the row ids by their values: each cluster contains the ids of rows with equal values.
+ * Clusters with only one row (singletons) are removed, because such rows cannot be duplicates.
+ *
+ * In that way, a cc is unique exactly when its PLI has no clusters.
+ * The PLI of a cc is computed by intersecting the PLI of a subset with the remaining columns,
+ * so only rows that are still non-unique have to be looked at.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+public class PositionListIndex {
+
+	// estimated memory overhead of an object or array header (in bytes)
+	private static final int HEADER_SIZE = 16;
+
+	private final List<int[]> clusters;
+	private final long memorySize;
+	private final long numDuplicates;
+	private final boolean complete;
+
+	public PositionListIndex(List<int[]> clusters) {
+		this(clusters, true);
+	}
+
+	private PositionListIndex(List<int[]> clusters, boolean complete) {
+		this.clusters = clusters;
+		this.complete = complete;
+
+		// estimate the memory size once (the PLI is not changed)
+		long size = HEADER_SIZE + HEADER_SIZE + 4L * clusters.size();
+		long duplicates = 0;
+		for(int[] cluster: clusters) {
+			size += HEADER_SIZE + 4L * cluster.length;
+			duplicates += cluster.length - 1;
+		}
+		this.memorySize = size;
+		this.numDuplicates = duplicates;
+	}
+
+	/***
+	 * Builds the PLI of a single column.
+	 *
+	 * @param columns: EncodedColumns: encoded table
+	 * @param column: int: column index
+	 *
+	 * @return PositionListIndex: PLI of the column
+	 */
+	public static PositionListIndex build(EncodedColumns columns, int column) {
+		EncodedColumn values = columns.getColumn(column);
+		int numRows = columns.getNumRows();
+
+		// count the rows of each value id (null-values included)
+		int[] counts = new int[columns.getDistinctCount(column) + 1];
+		for(int r = 0; r < numRows; r++) {
+			counts[values.get(r)]++;
+		}
+
+		// create a cluster for each value that occurs more than once
+		int[][] valueClusters = new int[counts.length][];
+		List<int[]> clusters = new ArrayList<int[]>();
+		for(int v = 0; v < counts.length; v++) {
+			if(counts[v] > 1) {
+				valueClusters[v] = new int[counts[v]];
+				clusters.add(valueClusters[v]);
+			}
+		}
+
+		// fill the clusters with row ids (counts are reused as fill positions)
+		Arrays.fill(counts, 0);
+		for(int r = 0; r < numRows; r++) {
+			int value = values.get(r);
+			int[] cluster = valueClusters[value];
+			if(cluster != null) {
+				cluster[counts[value]++] = r;
+			}
+		}
+		return new PositionListIndex(clusters);
+	}
+
+	/***
+	 * Intersects this PLI with one more column.
+	 * Each cluster is split up by the value ids of the column; new singletons are removed.
+	 * The rows of a cluster are grouped with a reused hash table (see ProbeTable),
+	 * so only the new clusters are allocated.
+	 *
+	 * @param column: EncodedColumn: value ids of the additional column
+	 *
+	 * @return PositionListIndex: PLI of the cc extended by the column
+	 */
+	public PositionListIndex intersect(EncodedColumn column) {
+		return intersect(column, -1);
+	}
+
+	/***
+	 * Intersects this PLI with one more column, but stops as soon as the uniqueness of the result is decided:
+	 * 	- the result has more than maxDuplicates duplicates already (not unique) or
+	 * 	- the result cannot get more than maxDuplicates duplicates from the remaining clusters (unique).
+	 * A PLI that is stopped early is not complete: it is only good for the decision and must not be cached.
+	 *
+	 * @param column: EncodedColumn: value ids of the additional column
+	 * @param maxDuplicates: long: number of duplicates that an (approximately) unique cc may have
+	 * 							   (negative = never stop early)
+	 *
+	 * @return PositionListIndex: (partial) PLI of the cc extended by the column
+	 */
+	public PositionListIndex intersect(EncodedColumn column, long maxDuplicates) {
+		List<int[]> result = new ArrayList<int[]>();
+		ProbeTable table = ProbeTable.get();
+		// duplicates of the result so far and at most from the remaining clusters
+		long duplicates = 0;
+		long remaining = numDuplicates;
+
+		for(int[] cluster: clusters) {
+			if(maxDuplicates >= 0 && (duplicates > maxDuplicates || duplicates + remaining <= maxDuplicates)) {
+				return new PositionListIndex(result, false);
+			}
+			remaining -= cluster.length - 1;
+
+			// pairs are split up without a table
+			if(cluster.length == 2) {
+				if(column.get(cluster[0]) == column.get(cluster[1])) {
+					result.add(new int[] {cluster[0], cluster[1]});
+					duplicates++;
+				}
+				continue;
+			}
+
+			// count the rows of each value, then fill a new cluster for each value with more than one row
+			// (the rows stay in ascending order)
+			table.reset(cluster.length);
+			table.addAll(column, cluster);
+			for(int i = 0; i < cluster.length; i++) {
+				int slot = table.slotOf(i);
+				if(table.count(slot) > 1) {
+					int[] newCluster = table.addToCluster(slot, cluster[i]);
+					if(newCluster != null) {
+						result.add(newCluster);
+						duplicates += newCluster.length - 1;
+					}
+				}
+			}
+		}
+		return new PositionListIndex(result);
+	}
+
+	/***
+	 * Counts the duplicates of the intersection with one more column, without building its PLI.
+	 * Like intersect, it stops as soon as the uniqueness is decided, so the count is only exact up to maxDuplicates + 1.
+	 * Nothing is allocated, so this is the check for cc's whose PLI is not needed afterwards.
+	 *
+	 * @param column: EncodedColumn: value ids of the additional column
+	 * @param maxDuplicates: long: number of duplicates that an (approximately) unique cc may have
+	 *
+	 * @return long: number of duplicates (at most maxDuplicates: unique, more: not unique)
+	 */
+	public long probeDuplicates(EncodedColumn column, long maxDuplicates) {
+		ProbeTable table = ProbeTable.get();
+		long duplicates = 0;
+		long remaining = numDuplicates;
+
+		for(int[] cluster: clusters) {
+			if(duplicates > maxDuplicates || duplicates + remaining <= maxDuplicates) break;
+			remaining -= cluster.length - 1;
+
+			if(cluster.length == 2) {
+				if(column.get(cluster[0]) == column.get(cluster[1])) {
+					duplicates++;
+				}
+				continue;
+			}
+
+			// each row after the first one of its value is a duplicate
+			table.reset(cluster.length);
+			duplicates += table.addAll(column, cluster);
+		}
+		return duplicates;
+	}
+
+	/***
+	 * @return boolean: true  - no cluster left, i.e. the cc is unique
+	 * 					 false - at least two rows have equal values
+	 */
+	public boolean isUnique() {
+		return clusters.isEmpty();
+	}
+
+	/***
+	 * The number of duplicates is the number of rows that have to be removed to make the cc unique.
+	 * Divided by the number of rows, it is the g3 error of the cc.
+	 *
+	 * @return long: sum of (cluster size - 1) over all clusters
+	 */
+	public long getNumDuplicates() {
+		return numDuplicates;
+	}
+
+	/***
+	 * @return boolean: false, if the intersection was stopped early (see intersect)
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/***
+	 * @return long: estimated memory size of the PLI in bytes
+	 */
+	public long getMemorySize() {
+		return memorySize;
+	}
+
+	public List<int[]> getClusters() {
+		return clusters;
+	}
+}
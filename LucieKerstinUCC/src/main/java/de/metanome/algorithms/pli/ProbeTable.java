@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import java.util.Arrays;
+
+import de.metanome.algorithms.data.EncodedColumn;
+import de.metanome.algorithms.data.ValueKernel;
+
+/***
+ * Open-addressing hash table from value ids to row counts, for grouping the rows of one cluster by their values.
+ * The table is reused for all clusters: reset() only starts a new generation, so slots with an older stamp
+ * count as empty and nothing has to be cleared or allocated. The arrays only grow, if a cluster is larger than all before.
+ * Each thread has its own table (see get), so concurrent checks do not share slots.
+ *
+ * The rows of a cluster are added as a batch (see addAll): their value ids are gathered and hashed
+ * with the ValueKernel (vectorized, if possible), only the collisions are resolved one by one.
+ * The slot of each row is kept, so the rows can be put into their clusters without probing again.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+final class ProbeTable {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final ThreadLocal<ProbeTable> TABLES = new ThreadLocal<ProbeTable>() {
+		@Override
+		protected ProbeTable initialValue() {
+			return new ProbeTable();
+		}
+	};
+
+	private int[] keys = new int[INITIAL_CAPACITY];
+	private int[] counts = new int[INITIAL_CAPACITY];
+	// generation in which a slot was used (0 = never)
+	private int[] stamps = new int[INITIAL_CAPACITY];
+	// fill positions and clusters of the values with more than one row (see PositionListIndex.intersect)
+	private int[] positions = new int[INITIAL_CAPACITY];
+	private int[][] clusters = new int[INITIAL_CAPACITY][];
+	// value ids and slots of the rows of the current cluster (see addAll)
+	private int[] values = new int[INITIAL_CAPACITY];
+	private int[] rowSlots = new int[INITIAL_CAPACITY];
+	private int mask = INITIAL_CAPACITY - 1;
+	private int generation = 0;
+
+	private ProbeTable() {
+	}
+
+	/***
+	 * @return ProbeTable: table of the current thread
+	 */
+	static ProbeTable get() {
+		return TABLES.get();
+	}
+
+	/***
+	 * Empties the table for the rows of the next cluster.
+	 *
+	 * @param numRows: int: number of rows that will be added (the table is kept at most half full)
+	 */
+	void reset(int numRows) {
+		if(2 * numRows > keys.length) {
+			int capacity = Integer.highestOneBit(2 * numRows - 1) << 1;
+			keys = new int[capacity];
+			counts = new int[capacity];
+			stamps = new int[capacity];
+			positions = new int[capacity];
+			clusters = new int[capacity][];
+			values = new int[capacity];
+			rowSlots = new int[capacity];
+			mask = capacity - 1;
+			generation = 0;
+		}
+		generation++;
+		if(generation == 0) {
+			// the stamps wrapped around: old stamps could look current
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	/***
+	 * Counts the rows of a cluster by their values in the given column.
+	 * The table has to be reset for the cluster before.
+	 *
+	 * @param column: EncodedColumn: value ids of the column
+	 * @param rows: int[]: row ids of the cluster
+	 *
+	 * @return int: number of rows whose value was added before (duplicates)
+	 */
+	int addAll(EncodedColumn column, int[] rows) {
+		int length = rows.length;
+		column.gather(rows, length, values);
+		ValueKernel.get().hash(values, length, mask, rowSlots);
+
+		int duplicates = 0;
+		for(int i = 0; i < length; i++) {
+			int value = values[i];
+			int slot = rowSlots[i];
+			while(stamps[slot] == generation && keys[slot] != value) {
+				slot = (slot + 1) & mask;
+			}
+			if(stamps[slot] != generation) {
+				stamps[slot] = generation;
+				keys[slot] = value;
+				counts[slot] = 0;
+				positions[slot] = 0;
+			}
+			if(++counts[slot] > 1) {
+				duplicates++;
+			}
+			rowSlots[i] = slot;
+		}
+		return duplicates;
+	}
+
+	/***
+	 * @param i: int: position of a row in the cluster of the last addAll
+	 *
+	 * @return int: slot of the row's value
+	 */
+	int slotOf(int i) {
+		return rowSlots[i];
+	}
+
+	/***
+	 * @param slot: int: slot of an added value
+	 *
+	 * @return int: number of rows with the value
+	 */
+	int count(int slot) {
+		return counts[slot];
+	}
+
+	/***
+	 * Adds a row to the cluster of its value; the cluster is allocated with the first row.
+	 * The table forgets a cluster when it is full, so it does not keep it alive.
+	 *
+	 * @param slot: int: slot of a value with more than one row
+	 * @param row: int: row id
+	 *
+	 * @return int[]: new cluster, if the row is the first one of its value (otherwise null)
+	 */
+	int[] addToCluster(int slot, int row) {
+		int[] created = null;
+		if(positions[slot] == 0) {
+			clusters[slot] = created = new int[counts[slot]];
+		}
+		int[] cluster = clusters[slot];
+		cluster[positions[slot]++] = row;
+		if(positions[slot] == cluster.length) {
+			clusters[slot] = null;
+		}
+		return created;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/***
+ * Vectorized value kernel (Java 17+, module jdk.incubator.vector), see ValueKernel.
+ * Each step handles as many value ids as the preferred vector of the CPU has int lanes
+ * (e.g. 8 with AVX2, 16 with AVX-512); the rest of an array is handled by the scalar loop.
+ * It is only loaded, if the CPU has vectors with more than one int lane.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+class VectorValueKernel extends ValueKernel {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	VectorValueKernel() {
+		if(SPECIES.length() < 2) {
+			throw new UnsupportedOperationException("No int vectors on this CPU");
+		}
+	}
+
+	@Override
+	public void gather(int[] column, int[] rows, int length, int[] values) {
+		int i = 0;
+		for(int limit = SPECIES.loopBound(length); i < limit; i += SPECIES.length()) {
+			IntVector.fromArray(SPECIES, column, 0, rows, i).intoArray(values, i);
+		}
+		for(; i < length; i++) {
+			values[i] = column[rows[i]];
+		}
+	}
+
+	@Override
+	public void hash(int[] values, int length, int mask, int[] slots) {
+		int i = 0;
+		for(int limit = SPECIES.loopBound(length); i < limit; i += SPECIES.length()) {
+			IntVector hash = IntVector.fromArray(SPECIES, values, i).mul(HASH_MULTIPLIER);
+			hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.LSHR, 16))
+				.lanewise(VectorOperators.AND, mask)
+				.intoArray(slots, i);
+		}
+		for(; i < length; i++) {
+			slots[i] = hash(values[i]) & mask;
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "vector (" + SPECIES.vectorBitSize() + " bit)";
+	}
+}
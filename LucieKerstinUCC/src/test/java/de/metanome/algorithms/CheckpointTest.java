@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class CheckpointTest {
+
+  private static final int NUM_COLUMNS = 6;
+
+  private File checkpoint;
+  private File input;
+
+  @Before
+  public void setUp() throws Exception {
+    checkpoint = File.createTempFile("table", ".checkpoint");
+    checkpoint.delete();
+    input = File.createTempFile("table", ".csv");
+  }
+
+  @After
+  public void tearDown() {
+    checkpoint.delete();
+    input.delete();
+  }
+
+  @Test
+  public void testStoppedRunsContinueFromCheckpoint() throws Exception {
+    Random random = new Random(1);
+    for (int table = 0; table < 5; table++) {
+      List<List<String>> records = InMemoryInputGenerator.randomTable(random, NUM_COLUMNS, 30, 2);
+      write(records);
+
+      LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+      algorithm.execute();
+      assertTrue(algorithm.isComplete());
+      List<BitSet> expected = sorted(algorithm.unique);
+
+      // a budget of one byte stops each run after its first check
+      int runs = 0;
+      do {
+        algorithm = InMemoryInputGenerator.algorithm(records);
+        algorithm.setMemoryBudget(1);
+        algorithm.setCheckpoint(checkpoint, input);
+        algorithm.execute();
+        runs++;
+        assertTrue(expected.containsAll(algorithm.unique));
+        assertEquals(!algorithm.isComplete(), checkpoint.exists());
+      } while (!algorithm.isComplete());
+
+      assertTrue(runs > 1);
+      assertEquals(expected, sorted(algorithm.unique));
+    }
+  }
+
+  @Test
+  public void testCheckpointOfChangedInputIsIgnored() throws Exception {
+    // A is unique in the stale table
+    List<List<String>> stale = table("1,x,p", "2,x,q", "3,y,p", "4,y,q");
+    write(stale);
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(stale);
+    algorithm.setMemoryBudget(1);
+    algorithm.setCheckpoint(checkpoint, input);
+    algorithm.execute();
+    assertFalse(algorithm.isComplete());
+
+    // same table name, columns and number of rows, but A is not unique anymore
+    List<List<String>> records = table("1,x,p", "1,x,q", "3,y,p", "3,y,q");
+    write(records);
+    LucieKerstinUCC expected = InMemoryInputGenerator.algorithm(records);
+    expected.execute();
+    algorithm = InMemoryInputGenerator.algorithm(records);
+    algorithm.setCheckpoint(checkpoint, input);
+    algorithm.execute();
+
+    assertTrue(algorithm.isComplete());
+    assertEquals(sorted(expected.unique), sorted(algorithm.unique));
+  }
+
+  @Test
+  public void testBudgetNeedsBottomUpTraversal() throws Exception {
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(InMemoryInputGenerator.randomTable(new Random(3), NUM_COLUMNS, 30, 2));
+    algorithm.setTraversal(LucieKerstinUCCAlgorithm.Traversal.TOP_DOWN);
+    algorithm.setTimeBudget(1000);
+    boolean rejected = false;
+    try {
+      algorithm.execute();
+    } catch (AlgorithmExecutionException e) {
+      rejected = true;
+    }
+    assertTrue(rejected);
+  }
+
+  private static List<List<String>> table(String... rows) {
+    List<List<String>> records = new ArrayList<List<String>>();
+    records.add(Arrays.asList("A", "B", "C"));
+    for (String row : rows) {
+      records.add(Arrays.asList(row.split(",")));
+    }
+    return records;
+  }
+
+  private void write(List<List<String>> records) throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (List<String> record : records) {
+      for (int c = 0; c < record.size(); c++) {
+        content.append(c == 0 ? "" : ",").append(record.get(c));
+      }
+      content.append('\n');
+    }
+    OutputStream out = new FileOutputStream(input);
+    try {
+      out.write(content.toString().getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+  }
+
+  private static List<BitSet> sorted(List<BitSet> uccs) {
+    List<BitSet> sorted = new ArrayList<BitSet>(uccs);
+    Collections.sort(sorted, ColumnCombinations.LEXICOGRAPHIC);
+    return sorted;
+  }
+
+}
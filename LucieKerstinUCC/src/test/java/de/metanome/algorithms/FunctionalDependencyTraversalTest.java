@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.FunctionalDependencyResultReceiver;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+
+public class FunctionalDependencyTraversalTest {
+
+  private static final int NUM_COLUMNS = 6;
+
+  @Test
+  public void testMinimalFdsOfRandomTables() throws Exception {
+    Random random = new Random(1);
+    for (int table = 0; table < 30; table++) {
+      List<List<String>> records = InMemoryInputGenerator.randomTable(random, NUM_COLUMNS, 2 + random.nextInt(30), 1);
+      for (LucieKerstinUCCAlgorithm.Traversal traversal : LucieKerstinUCCAlgorithm.Traversal.values()) {
+        assertEquals(bruteForce(records), discover(records, traversal));
+      }
+    }
+  }
+
+  @Test
+  public void testConstantColumnHasEmptyLeftHandSide() throws Exception {
+    List<List<String>> records = new ArrayList<List<String>>();
+    records.add(row("c0", "c1", "c2", "c3", "c4", "c5"));
+    records.add(row("1", "a", "x", "k", "1", "1"));
+    records.add(row("2", "a", "y", "k", "1", "2"));
+    records.add(row("3", "b", "y", "k", "2", "1"));
+
+    Set<String> fds = discover(records, LucieKerstinUCCAlgorithm.Traversal.BOTTOM_UP);
+
+    assertEquals(bruteForce(records), fds);
+    assertTrue(fds.contains("[]->c3"));
+  }
+
+  /**
+   * @return the fd's as "[lhs]->rhs" with the sorted column indices of the left hand side
+   */
+  private Set<String> discover(List<List<String>> records, LucieKerstinUCCAlgorithm.Traversal traversal) throws Exception {
+    final Set<String> fds = new HashSet<String>();
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+    algorithm.setTraversal(traversal);
+    algorithm.setResultReceiver(new FunctionalDependencyResultReceiver() {
+      @Override
+      public void receiveResult(FunctionalDependency fd) {
+        List<String> lhs = new ArrayList<String>();
+        for (ColumnIdentifier identifier : fd.getDeterminant().getColumnIdentifiers()) {
+          lhs.add(identifier.getColumnIdentifier());
+        }
+        Collections.sort(lhs);
+        fds.add(lhs + "->" + fd.getDependant().getColumnIdentifier());
+      }
+    });
+    algorithm.execute();
+    return fds;
+  }
+
+  /**
+   * Checks all left hand sides of each column on the rows.
+   */
+  private Set<String> bruteForce(List<List<String>> records) {
+    List<BitSet> holding = new ArrayList<BitSet>();
+    Set<String> fds = new HashSet<String>();
+    for (int a = 0; a < NUM_COLUMNS; a++) {
+      holding.clear();
+      for (int mask = 0; mask < 1 << NUM_COLUMNS; mask++) {
+        BitSet lhs = BitSet.valueOf(new long[] {mask});
+        if (lhs.get(a) || !holds(records, lhs, a)) continue;
+        holding.add(lhs);
+      }
+      for (BitSet lhs : holding) {
+        boolean minimal = true;
+        for (BitSet other : holding) {
+          BitSet intersection = (BitSet) other.clone();
+          intersection.and(lhs);
+          if (!other.equals(lhs) && intersection.equals(other)) {
+            minimal = false;
+          }
+        }
+        if (minimal) {
+          List<String> names = new ArrayList<String>();
+          for (int c = lhs.nextSetBit(0); c >= 0; c = lhs.nextSetBit(c + 1)) {
+            names.add("c" + c);
+          }
+          fds.add(names + "->c" + a);
+        }
+      }
+    }
+    return fds;
+  }
+
+  private boolean holds(List<List<String>> records, BitSet lhs, int rhs) {
+    for (int i = 1; i < records.size(); i++) {
+      for (int j = i + 1; j < records.size(); j++) {
+        boolean agree = true;
+        for (int c = lhs.nextSetBit(0); c >= 0 && agree; c = lhs.nextSetBit(c + 1)) {
+          agree = records.get(i).get(c).equals(records.get(j).get(c));
+        }
+        if (agree && !records.get(i).get(rhs).equals(records.get(j).get(rhs))) return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<String> row(String... values) {
+    List<String> row = new ArrayList<String>();
+    Collections.addAll(row, values);
+    return row;
+  }
+
+}
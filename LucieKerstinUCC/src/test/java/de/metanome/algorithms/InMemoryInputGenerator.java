@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.metanome.algorithm_integration.AlgorithmConfigurationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+
+/**
+ * Input generator of a table in memory for the tests. The first record holds the column names, the others are the data.
+ */
+public class InMemoryInputGenerator implements RelationalInputGenerator {
+
+  private final List<List<String>> records;
+  private int copies = 0;
+
+  public InMemoryInputGenerator(List<List<String>> records) {
+    this.records = records;
+  }
+
+  /**
+   * @return an algorithm that reads the given records
+   */
+  public static LucieKerstinUCC algorithm(List<List<String>> records) throws AlgorithmConfigurationException {
+    LucieKerstinUCC algorithm = new LucieKerstinUCC();
+    algorithm.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), new InMemoryInputGenerator(records));
+    return algorithm;
+  }
+
+  /**
+   * @return a table with the columns c0, c1, ... and random values, column c has minValues + c different values at most
+   */
+  public static List<List<String>> randomTable(Random random, int numColumns, int numRows, int minValues) {
+    List<List<String>> records = new ArrayList<List<String>>();
+    List<String> header = new ArrayList<String>();
+    for (int c = 0; c < numColumns; c++) {
+      header.add("c" + c);
+    }
+    records.add(header);
+    for (int r = 0; r < numRows; r++) {
+      List<String> record = new ArrayList<String>();
+      for (int c = 0; c < numColumns; c++) {
+        record.add(String.valueOf(random.nextInt(minValues + c)));
+      }
+      records.add(record);
+    }
+    return records;
+  }
+
+  /**
+   * @return number of copies of the input that were generated so far
+   */
+  public int getCopies() {
+    return copies;
+  }
+
+  @Override
+  public RelationalInput generateNewCopy() {
+    copies++;
+    return new RelationalInput() {
+      private int next = 1;
+
+      @Override
+      public boolean hasNext() {
+        return next < records.size();
+      }
+
+      @Override
+      public List<String> next() {
+        return records.get(next++);
+      }
+
+      @Override
+      public int numberOfColumns() {
+        return records.get(0).size();
+      }
+
+      @Override
+      public String relationName() {
+        return "table";
+      }
+
+      @Override
+      public List<String> columnNames() {
+        return records.get(0);
+      }
+    };
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class IncrementalMaintenanceTest {
+
+  private IncrementalMaintenance maintenance;
+
+  @Before
+  public void setUp() throws Exception {
+    List<List<String>> records = Arrays.asList(
+        Arrays.asList("A", "B", "C"),
+        Arrays.asList("1", "x", "p"),
+        Arrays.asList("2", "x", "q"),
+        Arrays.asList("3", "y", "p"));
+
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+    algorithm.setExtendable(true);
+    algorithm.execute();
+
+    maintenance = new IncrementalMaintenance(algorithm);
+  }
+
+  @Test
+  public void testTableMustBeExtendable() throws Exception {
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(Arrays.asList(Arrays.asList("A"), Arrays.asList("1")));
+    algorithm.execute();
+    boolean rejected = false;
+    try {
+      new IncrementalMaintenance(algorithm);
+    } catch (AlgorithmExecutionException e) {
+      rejected = true;
+    }
+    assertTrue(rejected);
+  }
+
+  @Test
+  public void testRunMustBeComplete() throws Exception {
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(InMemoryInputGenerator.randomTable(new Random(1), 6, 20, 2));
+    algorithm.setExtendable(true);
+    algorithm.setMemoryBudget(1);
+    algorithm.execute();
+    assertFalse(algorithm.isComplete());
+
+    boolean rejected = false;
+    try {
+      new IncrementalMaintenance(algorithm);
+    } catch (AlgorithmExecutionException e) {
+      rejected = true;
+    }
+    assertTrue(rejected);
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1, 2)), maintenance.getMinimalUccs());
+    assertEquals(Arrays.asList(ColumnCombinations.of(1), ColumnCombinations.of(2)), maintenance.getMaximalNonUccs());
+  }
+
+  @Test
+  public void testInsertBreaksUccs() {
+    int[] rows = maintenance.insert(Collections.singletonList(Arrays.asList("1", "y", "q")));
+
+    assertArrayEquals(new int[] {3}, rows);
+    assertEquals(4, maintenance.getNumRows());
+    assertEquals(Arrays.asList(ColumnCombinations.of(0, 1), ColumnCombinations.of(0, 2), ColumnCombinations.of(1, 2)), maintenance.getMinimalUccs());
+  }
+
+  @Test
+  public void testDeleteRestoresUccs() {
+    int[] rows = maintenance.insert(Collections.singletonList(Arrays.asList("1", "y", "q")));
+    maintenance.delete(rows);
+
+    assertEquals(3, maintenance.getNumRows());
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1, 2)), maintenance.getMinimalUccs());
+  }
+
+  @Test
+  public void testDeleteFindsSmallerUccs() {
+    maintenance.delete(new int[] {1, 2});
+
+    assertEquals(1, maintenance.getNumRows());
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1), ColumnCombinations.of(2)), maintenance.getMinimalUccs());
+  }
+
+}
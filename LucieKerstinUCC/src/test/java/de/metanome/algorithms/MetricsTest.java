@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+
+public class MetricsTest {
+
+  // A is unique, B and C have too few values for a single column ucc, D is constant, BC is unique
+  private List<List<String>> records = Arrays.asList(
+      Arrays.asList("A", "B", "C", "D"),
+      Arrays.asList("1", "x", "p", "k"),
+      Arrays.asList("2", "x", "q", "k"),
+      Arrays.asList("3", "y", "p", "k"));
+
+  @Test
+  public void testNoMetricsByDefault() throws Exception {
+    assertNull(run(false).getMetrics());
+  }
+
+  @Test
+  public void testLevelsOfBottomUp() throws Exception {
+    Metrics metrics = run(true).getMetrics();
+
+    List<Metrics.Level> levels = metrics.getLevels();
+    assertEquals(2, levels.size());
+
+    Metrics.Level first = levels.get(0);
+    assertEquals(1, first.getSize());
+    assertEquals(3, first.getGenerated());
+    // D (constant), B and C (2 values for 3 rows) are decided by their cardinality
+    assertEquals(3, first.getPrunedByCardinality());
+    assertEquals(1, first.getChecked());
+    assertEquals(1, first.getUnique());
+
+    Metrics.Level second = levels.get(1);
+    assertEquals(2, second.getSize());
+    assertEquals(1, second.getGenerated());
+    assertEquals(1, second.getChecked());
+    assertEquals(1, second.getUnique());
+    // the cluster of x in B (2 rows) is intersected with C
+    assertEquals(2, second.getRowsScanned());
+
+    assertTrue(metrics.getPeakHeapBytes() > 0);
+    assertEquals(3, metrics.toCsv().split("\n").length);
+    assertTrue(metrics.toJson().contains("\"level\": 2"));
+  }
+
+  @Test
+  public void testLevelsWithoutUcc() throws Exception {
+    // the last two rows are equal, so even the cc of all columns is non-unique
+    records = Arrays.asList(
+        Arrays.asList("A", "B", "C", "D"),
+        Arrays.asList("1", "x", "p", "k"),
+        Arrays.asList("2", "y", "q", "m"),
+        Arrays.asList("2", "y", "q", "m"));
+    Metrics metrics = run(true).getMetrics();
+
+    List<Metrics.Level> levels = metrics.getLevels();
+    assertEquals(4, levels.size());
+    assertEquals(4, levels.get(3).getSize());
+    assertEquals(1, levels.get(3).getGenerated());
+    assertEquals(0, levels.get(3).getUnique());
+  }
+
+  private LucieKerstinUCC run(boolean collectMetrics) throws Exception {
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+    algorithm.setCollectMetrics(collectMetrics);
+    algorithm.execute();
+    return algorithm;
+  }
+
+}
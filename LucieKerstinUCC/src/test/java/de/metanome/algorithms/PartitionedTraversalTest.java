@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class PartitionedTraversalTest {
+
+  private static final int NUM_COLUMNS = 7;
+
+  @Test
+  public void testPartitionsFindTheSameUccs() throws Exception {
+    Random random = new Random(1);
+    for (int table = 0; table < 20; table++) {
+      List<List<String>> records = InMemoryInputGenerator.randomTable(random, NUM_COLUMNS, 30, 2);
+
+      LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+      algorithm.execute();
+      List<BitSet> expected = new ArrayList<BitSet>(algorithm.unique);
+      Collections.sort(expected, ColumnCombinations.LEXICOGRAPHIC);
+
+      assertEquals(expected, runPartitions(records, 1));
+      assertEquals(expected, runPartitions(records, 3));
+    }
+  }
+
+  /**
+   * Runs the partitions level by level, like the coordinator of a distributed run:
+   * the ucc's of each level are added to all partitions before the next level.
+   */
+  private List<BitSet> runPartitions(List<List<String>> records, int numPartitions) throws Exception {
+    List<PartitionedTraversal> partitions = new ArrayList<PartitionedTraversal>();
+    for (int p = 0; p < numPartitions; p++) {
+      PartitionedTraversal partition = new PartitionedTraversal(InMemoryInputGenerator.algorithm(records));
+      partition.initialize();
+      BitSet leadingColumns = new BitSet();
+      for (int c = p; c < NUM_COLUMNS; c += numPartitions) {
+        leadingColumns.set(c);
+      }
+      partition.setLeadingColumns(leadingColumns);
+      partitions.add(partition);
+    }
+
+    List<BitSet> uccs = new ArrayList<BitSet>();
+    List<BitSet> levelUccs = new ArrayList<BitSet>();
+    boolean finished = false;
+    while (!finished) {
+      List<BitSet> nextUccs = new ArrayList<BitSet>();
+      finished = true;
+      for (PartitionedTraversal partition : partitions) {
+        partition.addUccs(levelUccs);
+        nextUccs.addAll(partition.checkNextLevel());
+        finished &= partition.getNumNonunique() == 0;
+      }
+      uccs.addAll(nextUccs);
+      levelUccs = nextUccs;
+    }
+    Collections.sort(uccs, ColumnCombinations.LEXICOGRAPHIC);
+    return uccs;
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class SnapshotTest {
+
+  private File directory;
+  private File input;
+  private List<List<String>> records = Arrays.asList(
+      Arrays.asList("A", "B", "C"),
+      Arrays.asList("1", "x", "p"),
+      Arrays.asList("2", "x", "q"),
+      Arrays.asList("3", "y", "p"));
+  private int copies;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = File.createTempFile("snapshots", "");
+    directory.delete();
+    input = File.createTempFile("table", ".csv");
+    write("A,B,C\n1,x,p\n2,x,q\n3,y,p\n");
+  }
+
+  @After
+  public void tearDown() {
+    delete(directory);
+    input.delete();
+  }
+
+  @Test
+  public void testUnchangedInputIsLoaded() throws Exception {
+    run();
+    assertEquals(1, copies);
+
+    LucieKerstinUCC algorithm = run();
+
+    assertEquals(1, copies);
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1, 2)), algorithm.unique);
+    assertEquals(3, algorithm.columns.getNumRows());
+    assertEquals(2, algorithm.getColumnPli(1).getClusters().get(0).length);
+  }
+
+  @Test
+  public void testChangedInputIsDiscoveredAgain() throws Exception {
+    run();
+    // same size, other content
+    write("A,B,C\n1,x,p\n2,x,q\n3,y,q\n");
+    run();
+
+    assertEquals(2, copies);
+  }
+
+  @Test
+  public void testFilesWithTheSameNameHaveTheirOwnSnapshots() throws Exception {
+    File folder = File.createTempFile("other", "");
+    folder.delete();
+    folder.mkdirs();
+    File other = new File(folder, input.getName());
+    try {
+      File first = input;
+      copyTo(other);
+      run();
+      input = other;
+      run();
+      assertEquals(2, copies);
+
+      // neither run invalidated the snapshot of the other file
+      input = first;
+      run();
+      input = other;
+      run();
+      assertEquals(2, copies);
+    } finally {
+      delete(folder);
+    }
+  }
+
+  private LucieKerstinUCC run() throws Exception {
+    InMemoryInputGenerator generator = new InMemoryInputGenerator(records);
+    LucieKerstinUCC algorithm = new LucieKerstinUCC();
+    algorithm.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), generator);
+    algorithm.setSnapshot(directory, input);
+    algorithm.execute();
+    copies += generator.getCopies();
+    return algorithm;
+  }
+
+  private void write(String content) throws IOException {
+    OutputStream out = new FileOutputStream(input);
+    try {
+      out.write(content.getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+  }
+
+  private void copyTo(File file) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(Files.readAllBytes(input.toPath()));
+    } finally {
+      out.close();
+    }
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class SpillDirectoryTest {
+
+  private File directory;
+  private File input;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = File.createTempFile("spill", "");
+    directory.delete();
+    input = File.createTempFile("table", ".csv");
+  }
+
+  @After
+  public void tearDown() {
+    delete(directory);
+    input.delete();
+  }
+
+  @Test
+  public void testUnchangedInputReusesTheColumns() throws Exception {
+    List<List<String>> records = write("A,B,C", "1,x,p", "2,x,q", "3,y,p");
+    run(records);
+
+    LucieKerstinUCC algorithm = run(records);
+
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1, 2)), algorithm.unique);
+  }
+
+  @Test
+  public void testChangedInputWithTheSameHeaderIsReadAgain() throws Exception {
+    run(write("A,B,C", "1,x,p", "2,x,q", "3,y,p"));
+    // same header and number of rows, but A is not unique anymore and B is
+    LucieKerstinUCC algorithm = run(write("A,B,C", "1,x,p", "1,y,q", "3,z,p"));
+
+    assertEquals(Arrays.asList(ColumnCombinations.of(1), ColumnCombinations.of(0, 2)), algorithm.unique);
+    assertEquals(3, algorithm.columns.getNumRows());
+  }
+
+  @Test
+  public void testAppendedRowsAreRead() throws Exception {
+    run(write("A,B,C", "1,x,p", "2,x,q", "3,y,p"));
+    LucieKerstinUCC algorithm = run(write("A,B,C", "1,x,p", "2,x,q", "3,y,p", "4,y,q"));
+
+    assertEquals(4, algorithm.columns.getNumRows());
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1, 2)), algorithm.unique);
+  }
+
+  private LucieKerstinUCC run(List<List<String>> records) throws Exception {
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+    algorithm.setSpillDirectory(directory, input);
+    algorithm.execute();
+    return algorithm;
+  }
+
+  /**
+   * Writes the lines to the input file.
+   *
+   * @return the same table as records (the algorithm reads them, the file is the key of the spilled columns)
+   */
+  private List<List<String>> write(String... lines) throws IOException {
+    StringBuilder content = new StringBuilder();
+    List<List<String>> records = new ArrayList<List<String>>();
+    for (String line : lines) {
+      content.append(line).append('\n');
+      records.add(Arrays.asList(line.split(",")));
+    }
+    OutputStream out = new FileOutputStream(input);
+    try {
+      out.write(content.toString().getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+    return records;
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+}
@@ -16,10 +16,21 @@
 
 package de.metanome.algorithms.algorithm_template;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import de.metanome.algorithm_integration.result_receiver.FunctionalDependencyResultReceiver;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithms.InMemoryInputGenerator;
+import de.metanome.algorithms.LucieKerstinUCC;
+
 public class MyUccTest {
 
   @Before
@@ -47,7 +58,26 @@ public class MyUccTest {
   }
 
   @Test
-  public void testSetResultReceiverFunctionalDependencyResultReceiver() {
+  public void testSetResultReceiverFunctionalDependencyResultReceiver() throws Exception {
+    List<List<String>> records = Arrays.asList(
+        Arrays.asList("A", "B"),
+        Arrays.asList("1", "x"),
+        Arrays.asList("2", "x"),
+        Arrays.asList("1", "x"));
+    final List<FunctionalDependency> fds = new ArrayList<FunctionalDependency>();
+    LucieKerstinUCC algorithm = InMemoryInputGenerator.algorithm(records);
+    algorithm.setResultReceiver(new FunctionalDependencyResultReceiver() {
+      @Override
+      public void receiveResult(FunctionalDependency fd) {
+        fds.add(fd);
+      }
+    });
+    algorithm.execute();
+
+    // B is constant, so it is determined by the empty left hand side
+    assertEquals(1, fds.size());
+    assertEquals("B", fds.get(0).getDependant().getColumnIdentifier());
+    assertEquals(0, fds.get(0).getDeterminant().getColumnIdentifiers().size());
   }
 
   @Test
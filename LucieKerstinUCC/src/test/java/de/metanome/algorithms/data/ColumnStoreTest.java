@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnStoreTest {
+
+  private ColumnStore store;
+
+  @Before
+  public void setUp() {
+    store = new ColumnStore(2);
+    store.add(Arrays.asList("a", "x"));
+    store.add(Arrays.asList("b", null));
+    store.add(Arrays.asList("a", "y"));
+  }
+
+  @Test
+  public void testTrimDropsTheDictionaries() {
+    store.trim();
+
+    assertFalse(store.isExtendable());
+    assertEquals(2, store.getDistinctCount(0));
+    assertEquals(2, store.getDistinctCount(1));
+    assertEquals(1, store.getNullCount(1));
+    assertEquals(3, store.getNumRows());
+  }
+
+  @Test
+  public void testTrimKeepsTheDictionariesOnRequest() {
+    store.trim(true);
+    store.add(Arrays.asList("c", "x"));
+
+    assertTrue(store.isExtendable());
+    assertEquals(3, store.getDistinctCount(0));
+    assertEquals(store.getColumn(1).get(0), store.getColumn(1).get(3));
+    assertEquals(4, store.getNumRows());
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedColumnStoreTest {
+
+  private File directory;
+  private File input;
+  private List<String> columnNames = Arrays.asList("A", "B");
+
+  @Before
+  public void setUp() throws Exception {
+    directory = File.createTempFile("columns", "");
+    directory.delete();
+    input = File.createTempFile("table", ".csv");
+    write("A,B\na,x\nb,\na,y\nc\n");
+
+    MappedColumnStore store = MappedColumnStore.create(directory, 2);
+    store.add(Arrays.asList("a", "x"));
+    store.add(Arrays.asList("b", null));
+    store.add(Arrays.asList("a", "y"));
+    store.add(Arrays.asList("c"));
+    store.finish(columnNames, new InputKey(input));
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+    input.delete();
+  }
+
+  @Test
+  public void testOpenReadsTheSameValueIds() throws Exception {
+    MappedColumnStore store = MappedColumnStore.open(directory, columnNames, new InputKey(input));
+
+    assertNotNull(store);
+    assertEquals(4, store.getNumRows());
+    assertEquals(3, store.getDistinctCount(0));
+    assertEquals(2, store.getDistinctCount(1));
+    assertEquals(0, store.getNullCount(0));
+    assertEquals(2, store.getNullCount(1));
+    assertEquals(store.getColumn(0).get(0), store.getColumn(0).get(2));
+    assertEquals(ColumnStore.NULL_ID, store.getColumn(1).get(1));
+    assertEquals(ColumnStore.NULL_ID, store.getColumn(1).get(3));
+    assertEquals(4, store.getColumn(1).size());
+  }
+
+  @Test
+  public void testOpenOtherTable() throws Exception {
+    assertNull(MappedColumnStore.open(directory, Arrays.asList("A", "C"), new InputKey(input)));
+  }
+
+  @Test
+  public void testStoreOfChangedInputIsNotOpened() throws Exception {
+    // same header and size, other content
+    write("A,B\na,x\nb,\na,z\nc\n");
+
+    assertNull(MappedColumnStore.open(directory, columnNames, new InputKey(input)));
+  }
+
+  @Test
+  public void testStoreOfUnknownInputIsNotOpened() throws Exception {
+    assertNull(MappedColumnStore.open(directory, columnNames, null));
+  }
+
+  @Test
+  public void testUnfinishedStoreIsNotOpened() throws Exception {
+    MappedColumnStore store = MappedColumnStore.create(directory, 2);
+    store.add(Arrays.asList("a", "x"));
+    store.close();
+
+    assertNull(MappedColumnStore.open(directory, columnNames, new InputKey(input)));
+  }
+
+  private void write(String content) throws IOException {
+    OutputStream out = new FileOutputStream(input);
+    try {
+      out.write(content.getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.data;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ValueKernelTest {
+
+  @Test
+  public void testKernelMatchesScalarKernel() {
+    Random random = new Random(1);
+    ValueKernel kernel = ValueKernel.get();
+    int[] column = new int[1000];
+    for (int r = 0; r < column.length; r++) {
+      column[r] = random.nextInt(50);
+    }
+
+    // lengths around multiples of the vector sizes, so the scalar rest is covered as well
+    for (int length = 0; length <= 70; length++) {
+      int[] rows = new int[length];
+      for (int i = 0; i < length; i++) {
+        rows[i] = random.nextInt(column.length);
+      }
+      int[] expectedValues = new int[length];
+      int[] values = new int[length];
+      ValueKernel.scalar().gather(column, rows, length, expectedValues);
+      kernel.gather(column, rows, length, values);
+      assertArrayEquals(expectedValues, values);
+
+      int[] expectedSlots = new int[length];
+      int[] slots = new int[length];
+      ValueKernel.scalar().hash(values, length, 127, expectedSlots);
+      kernel.hash(values, length, 127, slots);
+      assertArrayEquals(expectedSlots, slots);
+    }
+  }
+
+  @Test
+  public void testScalarKernel() {
+    int[] values = new int[3];
+    ValueKernel.scalar().gather(new int[] {5, 6, 7, 8}, new int[] {3, 0, 3}, 3, values);
+    assertArrayEquals(new int[] {8, 5, 8}, values);
+
+    int[] slots = new int[3];
+    ValueKernel.scalar().hash(values, 3, 15, slots);
+    assertArrayEquals(new int[] {ValueKernel.hash(8) & 15, ValueKernel.hash(5) & 15, ValueKernel.hash(8) & 15}, slots);
+  }
+
+}
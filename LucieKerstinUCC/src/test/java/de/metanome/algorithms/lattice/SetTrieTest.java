@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.lattice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SetTrieTest {
+
+  private SetTrie trie;
+
+  @Before
+  public void setUp() throws Exception {
+    trie = new SetTrie(6);
+    trie.add(ColumnCombinations.of(0, 2));
+    trie.add(ColumnCombinations.of(1, 3, 4));
+    trie.add(ColumnCombinations.of(0, 2));
+  }
+
+  @Test
+  public void testSize() {
+    assertEquals(2, trie.size());
+  }
+
+  @Test
+  public void testContainsSubsetOf() {
+    assertTrue(trie.containsSubsetOf(ColumnCombinations.of(0, 2)));
+    assertTrue(trie.containsSubsetOf(ColumnCombinations.of(0, 1, 2)));
+    assertTrue(trie.containsSubsetOf(ColumnCombinations.of(1, 2, 3, 4, 5)));
+    assertFalse(trie.containsSubsetOf(ColumnCombinations.of(0, 1, 3, 5)));
+    assertFalse(trie.containsSubsetOf(ColumnCombinations.of(2)));
+  }
+
+  @Test
+  public void testContainsSupersetOf() {
+    assertTrue(trie.containsSupersetOf(ColumnCombinations.of(0, 2)));
+    assertTrue(trie.containsSupersetOf(ColumnCombinations.of(2)));
+    assertTrue(trie.containsSupersetOf(ColumnCombinations.of(1, 4)));
+    assertFalse(trie.containsSupersetOf(ColumnCombinations.of(0, 1)));
+    assertFalse(trie.containsSupersetOf(ColumnCombinations.of(5)));
+  }
+
+  @Test
+  public void testRemove() {
+    trie.remove(ColumnCombinations.of(0, 2));
+
+    assertEquals(1, trie.size());
+    assertFalse(trie.contains(ColumnCombinations.of(0, 2)));
+    assertFalse(trie.containsSupersetOf(ColumnCombinations.of(2)));
+    assertEquals(1, trie.getSubsetsOf(ColumnCombinations.of(0, 1, 2, 3, 4)).size());
+  }
+
+  @Test
+  public void testLexicographicOrder() {
+    assertTrue(ColumnCombinations.LEXICOGRAPHIC.compare(ColumnCombinations.of(0, 1), ColumnCombinations.of(0, 1, 2)) < 0);
+    assertTrue(ColumnCombinations.LEXICOGRAPHIC.compare(ColumnCombinations.of(0, 1, 2), ColumnCombinations.of(0, 2)) < 0);
+    assertTrue(ColumnCombinations.LEXICOGRAPHIC.compare(ColumnCombinations.of(1), ColumnCombinations.of(0, 2)) > 0);
+    assertEquals(0, ColumnCombinations.LEXICOGRAPHIC.compare(ColumnCombinations.of(3), ColumnCombinations.of(3)));
+  }
+
+}
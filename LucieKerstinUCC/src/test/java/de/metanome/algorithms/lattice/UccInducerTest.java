@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.lattice;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class UccInducerTest {
+
+  @Test
+  public void testInitialCandidatesAreSingleColumns() {
+    UccInducer inducer = new UccInducer(3);
+
+    assertEquals(Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1), ColumnCombinations.of(2)), inducer.getCandidates());
+  }
+
+  @Test
+  public void testAddNonUnique() {
+    UccInducer inducer = new UccInducer(3);
+
+    assertEquals(2, inducer.addNonUnique(ColumnCombinations.of(0, 1)));
+    assertEquals(Arrays.asList(ColumnCombinations.of(2)), inducer.getCandidates());
+
+    assertEquals(1, inducer.addNonUnique(ColumnCombinations.of(2)));
+    assertEquals(Arrays.asList(ColumnCombinations.of(0, 2), ColumnCombinations.of(1, 2)), inducer.getCandidates());
+
+    assertEquals(0, inducer.addNonUnique(ColumnCombinations.of(0)));
+  }
+
+  @Test
+  public void testStartWithKnownCandidates() {
+    UccInducer inducer = new UccInducer(3, Arrays.asList(ColumnCombinations.of(0), ColumnCombinations.of(1, 2)));
+
+    assertEquals(1, inducer.addNonUnique(ColumnCombinations.of(0)));
+    assertEquals(Arrays.asList(ColumnCombinations.of(0, 1), ColumnCombinations.of(0, 2), ColumnCombinations.of(1, 2)), inducer.getCandidates());
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class AgreeSetSamplerTest {
+
+  private ColumnStore columns;
+  private PositionListIndex[] columnPlis;
+
+  @Before
+  public void setUp() throws Exception {
+    columns = new ColumnStore(3);
+    columns.add(Arrays.asList("a", "x", "1"));
+    columns.add(Arrays.asList("a", "x", "2"));
+    columns.add(Arrays.asList("a", "y", "3"));
+    columns.add(Arrays.asList("b", "y", "3"));
+    columns.trim();
+    columnPlis = new PositionListIndex[3];
+    for (int c = 0; c < 3; c++) {
+      columnPlis[c] = PositionListIndex.build(columns, c);
+    }
+  }
+
+  @Test
+  public void testSampleNeighbors() {
+    AgreeSetSampler sampler = new AgreeSetSampler(columns, columnPlis);
+    List<BitSet> agreeSets = sampler.sampleNeighbors(100);
+
+    // neighbors in A: (0, 1), (1, 2); in B: (0, 1), (2, 3); in C: (2, 3)
+    assertEquals(3, agreeSets.size());
+    assertTrue(agreeSets.contains(ColumnCombinations.of(0, 1)));
+    assertTrue(agreeSets.contains(ColumnCombinations.of(0)));
+    assertTrue(agreeSets.contains(ColumnCombinations.of(1, 2)));
+    assertEquals(5, sampler.getComparisons());
+  }
+
+  @Test
+  public void testSampleNeighborsWithinBudget() {
+    AgreeSetSampler sampler = new AgreeSetSampler(columns, columnPlis);
+    sampler.sampleNeighbors(3);
+
+    // one pair per column: the first neighbors of each column
+    assertEquals(3, sampler.getComparisons());
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithms.data.ColumnStore;
+
+public class MappedPliStoreTest {
+
+  private File directory;
+  private ColumnStore columns;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = File.createTempFile("plis", "");
+    directory.delete();
+    directory.mkdirs();
+
+    columns = new ColumnStore(2);
+    columns.add(Arrays.asList("a", "x"));
+    columns.add(Arrays.asList("b", "y"));
+    columns.add(Arrays.asList("a", "z"));
+    columns.add(Arrays.asList("b", null));
+    columns.add(Arrays.asList("a", null));
+    columns.trim();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    MappedPliStore store = new MappedPliStore(directory, 2);
+    store.write(0, PositionListIndex.build(columns, 0));
+
+    PositionListIndex pli = store.read(0);
+    assertEquals(2, pli.getClusters().size());
+    assertArrayEquals(new int[] {0, 2, 4}, pli.getClusters().get(0));
+    assertArrayEquals(new int[] {1, 3}, pli.getClusters().get(1));
+  }
+
+  @Test
+  public void testMapFilesOfEarlierRun() throws Exception {
+    new MappedPliStore(directory, 2).write(1, PositionListIndex.build(columns, 1));
+
+    MappedPliStore store = new MappedPliStore(directory, 2);
+    assertFalse(store.map(0));
+    assertTrue(store.map(1));
+    assertArrayEquals(new int[] {3, 4}, store.read(1).getClusters().get(0));
+  }
+
+}
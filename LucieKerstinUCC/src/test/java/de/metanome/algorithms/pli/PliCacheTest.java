@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import de.metanome.algorithms.lattice.ColumnCombinations;
+
+public class PliCacheTest {
+
+  private PositionListIndex pli(int rows) {
+    List<int[]> clusters = new ArrayList<int[]>();
+    clusters.add(new int[rows]);
+    return new PositionListIndex(clusters);
+  }
+
+  @Test
+  public void testLruEviction() {
+    PositionListIndex pli = pli(10);
+    PliCache cache = new PliCache(2 * pli.getMemorySize(), PliCache.Eviction.LRU);
+
+    cache.put(ColumnCombinations.of(0, 1), pli);
+    cache.put(ColumnCombinations.of(0, 2), pli);
+    // touch (0, 1), so (0, 2) is the least recently used PLI
+    assertNotNull(cache.get(ColumnCombinations.of(0, 1)));
+    cache.put(ColumnCombinations.of(1, 2), pli);
+
+    assertNull(cache.get(ColumnCombinations.of(0, 2)));
+    assertNotNull(cache.get(ColumnCombinations.of(0, 1)));
+    assertNotNull(cache.get(ColumnCombinations.of(1, 2)));
+    assertEquals(1, cache.getEvictions());
+    assertEquals(3, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testCostAwareEvictionPrefersLargeLowLevelPlis() {
+    PositionListIndex small = pli(10);
+    PositionListIndex large = pli(100);
+    PliCache cache = new PliCache(large.getMemorySize() + small.getMemorySize(), PliCache.Eviction.COST_AWARE);
+
+    cache.put(ColumnCombinations.of(0, 1), large);
+    cache.put(ColumnCombinations.of(0, 1, 2), small);
+    cache.put(ColumnCombinations.of(0, 1, 3), small);
+
+    assertNull(cache.get(ColumnCombinations.of(0, 1)));
+    assertTrue(cache.getSize() <= large.getMemorySize() + small.getMemorySize());
+  }
+
+  @Test
+  public void testConcurrentAccessStaysWithinBudget() throws Exception {
+    final PositionListIndex pli = pli(10);
+    final PliCache cache = new PliCache(20 * pli.getMemorySize(), PliCache.Eviction.LRU);
+    final AtomicLong found = new AtomicLong();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 4; t++) {
+      final int offset = t;
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 2000; i++) {
+            cache.put(ColumnCombinations.of(offset, 10 + i % 50), pli);
+            if (cache.get(ColumnCombinations.of(offset, 10 + (i + 49) % 50)) != null) {
+              found.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertTrue(cache.getSize() <= 20 * pli.getMemorySize());
+    assertTrue(cache.getEvictions() > 0);
+    assertEquals(4 * 2000, cache.getHits() + cache.getMisses());
+    assertEquals(found.get(), cache.getHits());
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.pli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithms.data.ColumnStore;
+
+public class PositionListIndexTest {
+
+  private ColumnStore columns;
+
+  @Before
+  public void setUp() throws Exception {
+    columns = new ColumnStore(3);
+    columns.add(Arrays.asList("a", "x", "1"));
+    columns.add(Arrays.asList("a", "y", "2"));
+    columns.add(Arrays.asList("b", "x", "3"));
+    columns.add(Arrays.asList("a", "x", null));
+    columns.add(Arrays.asList("c", null, null));
+    columns.trim();
+  }
+
+  @Test
+  public void testBuild() {
+    PositionListIndex pli = PositionListIndex.build(columns, 0);
+
+    assertEquals(1, pli.getClusters().size());
+    assertArrayEquals(new int[] {0, 1, 3}, pli.getClusters().get(0));
+    assertFalse(pli.isUnique());
+  }
+
+  @Test
+  public void testBuildGroupsNullValues() {
+    PositionListIndex pli = PositionListIndex.build(columns, 2);
+
+    assertEquals(1, pli.getClusters().size());
+    assertArrayEquals(new int[] {3, 4}, pli.getClusters().get(0));
+  }
+
+  @Test
+  public void testIntersect() {
+    PositionListIndex pli = PositionListIndex.build(columns, 0).intersect(columns.getColumn(1));
+
+    assertEquals(1, pli.getClusters().size());
+    assertArrayEquals(new int[] {0, 3}, pli.getClusters().get(0));
+    assertTrue(pli.intersect(columns.getColumn(2)).isUnique());
+  }
+
+  @Test
+  public void testNumDuplicates() {
+    PositionListIndex pli = new PositionListIndex(Arrays.asList(new int[] {0, 1, 3}, new int[] {2, 4}));
+
+    assertEquals(3, pli.getNumDuplicates());
+    assertEquals(1, pli.intersect(columns.getColumn(1)).getNumDuplicates());
+  }
+
+  @Test
+  public void testIntersectStopsWhenDecided() {
+    PositionListIndex pli = new PositionListIndex(Arrays.asList(new int[] {0, 1, 3}, new int[] {2, 4}));
+
+    // more duplicates than allowed after the first cluster
+    PositionListIndex nonunique = pli.intersect(columns.getColumn(1), 0);
+    assertFalse(nonunique.isComplete());
+    assertEquals(1, nonunique.getNumDuplicates());
+
+    // the remaining clusters cannot exceed the allowed duplicates
+    PositionListIndex unique = pli.intersect(columns.getColumn(1), 3);
+    assertFalse(unique.isComplete());
+    assertEquals(0, unique.getNumDuplicates());
+
+    assertTrue(pli.intersect(columns.getColumn(1), 1).isComplete());
+  }
+
+  @Test
+  public void testProbeDuplicates() {
+    PositionListIndex pli = new PositionListIndex(Arrays.asList(new int[] {0, 1, 3}, new int[] {2, 4}));
+
+    assertEquals(1, pli.probeDuplicates(columns.getColumn(1), 1));
+    // decided after the first cluster
+    assertEquals(1, pli.probeDuplicates(columns.getColumn(1), 0));
+    assertEquals(0, pli.probeDuplicates(columns.getColumn(1), 3));
+  }
+
+  @Test
+  public void testIntersectLargeClusters() {
+    // one cluster of 1000 rows with 7 values, then one of 3 rows: the table grows and is reused
+    ColumnStore large = new ColumnStore(2);
+    for (int r = 0; r < 1003; r++) {
+      large.add(Arrays.asList(r < 1000 ? "a" : "b", r < 1000 ? String.valueOf(r % 7) : String.valueOf(r)));
+    }
+    large.trim();
+    PositionListIndex pli = PositionListIndex.build(large, 0).intersect(large.getColumn(1));
+
+    assertEquals(7, pli.getClusters().size());
+    assertEquals(993, pli.getNumDuplicates());
+    assertArrayEquals(new int[] {0, 7, 14}, Arrays.copyOf(pli.getClusters().get(0), 3));
+    assertEquals(993, PositionListIndex.build(large, 0).probeDuplicates(large.getColumn(1), 1000));
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.algorithms.pli.PositionListIndex;
+
+/***
+ * Uniqueness checks of single candidates with PLIs:
+ * 	- columnPlis: building the PLIs of all single columns (done once per run)
+ * 	- intersect:  checking all cc's of two columns, each from the PLI of its first column
+ * 				  (the common case in the lattice: the PLI of the parent is cached)
+ * 	- probe:      the same checks, but only counting the duplicates (no PLI of the cc is allocated)
+ *
+ * Each call covers all columns or all cc's of two columns of the table.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckBenchmark {
+
+	private ColumnStore columns;
+	private PositionListIndex[] columnPlis;
+
+	@Setup
+	public void setUp(TableState table) {
+		columns = table.encode();
+		columnPlis = new PositionListIndex[columns.getNumColumns()];
+		for(int c = 0; c < columnPlis.length; c++) {
+			columnPlis[c] = PositionListIndex.build(columns, c);
+		}
+	}
+
+	@Benchmark
+	public PositionListIndex[] columnPlis() {
+		PositionListIndex[] plis = new PositionListIndex[columns.getNumColumns()];
+		for(int c = 0; c < plis.length; c++) {
+			plis[c] = PositionListIndex.build(columns, c);
+		}
+		return plis;
+	}
+
+	@Benchmark
+	public int intersect() {
+		int unique = 0;
+		for(int first = 0; first < columnPlis.length; first++) {
+			for(int second = first + 1; second < columnPlis.length; second++) {
+				if(columnPlis[first].intersect(columns.getColumn(second)).isUnique()) {
+					unique++;
+				}
+			}
+		}
+		return unique;
+	}
+
+	@Benchmark
+	public int probe() {
+		int unique = 0;
+		for(int first = 0; first < columnPlis.length; first++) {
+			for(int second = first + 1; second < columnPlis.length; second++) {
+				if(columnPlis[first].probeDuplicates(columns.getColumn(second), 0) == 0) {
+					unique++;
+				}
+			}
+		}
+		return unique;
+	}
+}
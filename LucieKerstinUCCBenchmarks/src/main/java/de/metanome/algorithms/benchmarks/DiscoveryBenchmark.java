@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.algorithms.LucieKerstinUCC;
+import de.metanome.algorithms.LucieKerstinUCCAlgorithm;
+
+/***
+ * Full discovery of all minimal ucc's (reading the table, PLIs and traversal of the lattice).
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class DiscoveryBenchmark {
+
+	@Param({"BOTTOM_UP", "TOP_DOWN", "RANDOM_WALK", "HYBRID"})
+	public LucieKerstinUCCAlgorithm.Traversal traversal;
+
+	@Param("1")
+	public int parallelism;
+
+	@Benchmark
+	public int discover(TableState table) throws AlgorithmExecutionException {
+		CountingReceiver receiver = new CountingReceiver();
+
+		LucieKerstinUCC ucc = new LucieKerstinUCC();
+		ucc.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), table.getInputGenerator());
+		ucc.setResultReceiver(receiver);
+		ucc.setTraversal(traversal);
+		ucc.setParallelism(parallelism);
+		ucc.execute();
+
+		return receiver.count;
+	}
+
+	/***
+	 * Only counts the ucc's, so the output does not influence the measurement.
+	 */
+	private static class CountingReceiver implements UniqueColumnCombinationResultReceiver {
+
+		private int count = 0;
+
+		@Override
+		public synchronized void receiveResult(UniqueColumnCombination ucc) throws CouldNotReceiveResultException {
+			count++;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.metanome.algorithms.lattice.SetTrie;
+
+/***
+ * Pruning: checking candidates against the ucc's found so far ("contains the candidate a known ucc?").
+ * The set-trie is compared with a scan over the list of ucc's (as in the first version of the algorithm).
+ * The ucc's and candidates are random cc's, so the benchmark does not depend on a table.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class PruningBenchmark {
+
+	// fixed seed, so all runs check the same cc's
+	private static final long SEED = 42;
+	private static final int NUM_CANDIDATES = 1000;
+
+	@Param("20")
+	public int columns;
+
+	// number of known ucc's
+	@Param({"100", "1000", "10000"})
+	public int uccs;
+
+	// number of columns of each known ucc (candidates have one column more)
+	@Param("3")
+	public int uccSize;
+
+	private SetTrie trie;
+	private List<BitSet> list;
+	private List<BitSet> candidates;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(SEED);
+		trie = new SetTrie(columns);
+		list = new ArrayList<BitSet>(uccs);
+		for(int i = 0; i < uccs; i++) {
+			BitSet ucc = randomCc(random, uccSize);
+			trie.add(ucc);
+			list.add(ucc);
+		}
+		candidates = new ArrayList<BitSet>(NUM_CANDIDATES);
+		for(int i = 0; i < NUM_CANDIDATES; i++) {
+			candidates.add(randomCc(random, uccSize + 1));
+		}
+	}
+
+	@Benchmark
+	public int trie() {
+		int pruned = 0;
+		for(BitSet candidate: candidates) {
+			if(trie.containsSubsetOf(candidate)) {
+				pruned++;
+			}
+		}
+		return pruned;
+	}
+
+	@Benchmark
+	public int scan() {
+		int pruned = 0;
+		for(BitSet candidate: candidates) {
+			for(BitSet ucc: list) {
+				BitSet rest = (BitSet) ucc.clone();
+				rest.andNot(candidate);
+				if(rest.isEmpty()) {
+					pruned++;
+					break;
+				}
+			}
+		}
+		return pruned;
+	}
+
+	private BitSet randomCc(Random random, int size) {
+		BitSet cc = new BitSet(columns);
+		while(cc.cardinality() < size) {
+			cc.set(random.nextInt(columns));
+		}
+		return cc;
+	}
+}
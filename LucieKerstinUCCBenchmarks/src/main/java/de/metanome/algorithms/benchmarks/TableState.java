@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 by the Metanome project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.metanome.algorithms.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.backend.input.csv.DefaultFileInputGenerator;
+
+/***
+ * Table that a benchmark runs on. The table is read once per trial and kept in memory,
+ * so the benchmarks do not measure the file access.
+ *
+ * Tables:
+ * 	- planets:    data/planets/WDC_planets.csv (small, many levels are checked)
+ * 	- ncvoter-1k: data/huge/ncvoter-1k.csv (wide)
+ * 	- synthetic:  generated table with the given number of rows, columns and distinct values per column.
+ * 				  The first column is a key, so the table has at least one ucc.
+ *
+ * @author Kerstin Günther, Lucie Omar
+ */
+@State(Scope.Benchmark)
+public class TableState {
+
+	public static final String PLANETS = "planets";
+	public static final String NCVOTER_1K = "ncvoter-1k";
+	public static final String SYNTHETIC = "synthetic";
+
+	// fixed seed, so all runs generate the same synthetic table
+	private static final long SEED = 42;
+
+	@Param({PLANETS, NCVOTER_1K, SYNTHETIC})
+	public String table;
+
+	// folder of the MetanomeTestRunner data sets
+	@Param("../MetanomeTestRunner/data/")
+	public String dataFolder;
+
+	// size of the synthetic table (ignored for the other tables)
+	@Param("10000")
+	public int rows;
+
+	@Param("10")
+	public int columns;
+
+	@Param("100")
+	public int cardinality;
+
+	// header first, then all rows
+	private List<List<String>> records;
+
+	@Setup
+	public void load() throws AlgorithmExecutionException {
+		if(PLANETS.equals(table)) {
+			records = read(dataFolder + "planets" + File.separator + "WDC_planets.csv");
+		} else if(NCVOTER_1K.equals(table)) {
+			records = read(dataFolder + "huge" + File.separator + "ncvoter-1k.csv");
+		} else if(SYNTHETIC.equals(table)) {
+			records = generate(rows, columns, cardinality);
+		} else {
+			throw new IllegalArgumentException("Unknown table: " + table);
+		}
+	}
+
+	/***
+	 * @return RelationalInputGenerator: generator that returns copies of the table in memory
+	 */
+	public RelationalInputGenerator getInputGenerator() {
+		return new RelationalInputGenerator() {
+			@Override
+			public RelationalInput generateNewCopy() {
+				return new InMemoryInput(table, records);
+			}
+		};
+	}
+
+	/***
+	 * Encodes the table the same way as the algorithm does.
+	 *
+	 * @return ColumnStore: encoded columns of the table
+	 */
+	public ColumnStore encode() {
+		ColumnStore store = new ColumnStore(records.get(0).size());
+		for(int i = 1; i < records.size(); i++) {
+			store.add(records.get(i));
+		}
+		store.trim();
+		return store;
+	}
+
+	private static List<List<String>> read(String path) throws AlgorithmExecutionException {
+		RelationalInputGenerator generator;
+		try {
+			// same settings as in the MetanomeTestRunner
+			generator = new DefaultFileInputGenerator(new ConfigurationSettingFileInput(
+					path, true, ',', '\"', '\\', false, true, 0, true, true));
+		} catch(Exception e) {
+			throw new InputGenerationException("Could not read " + path, e);
+		}
+
+		RelationalInput input = generator.generateNewCopy();
+		List<List<String>> records = new ArrayList<List<String>>();
+		records.add(new ArrayList<String>(input.columnNames()));
+		while(input.hasNext()) {
+			records.add(new ArrayList<String>(input.next()));
+		}
+		return records;
+	}
+
+	private static List<List<String>> generate(int rows, int columns, int cardinality) {
+		Random random = new Random(SEED);
+		List<List<String>> records = new ArrayList<List<String>>(rows + 1);
+
+		List<String> header = new ArrayList<String>(columns);
+		for(int c = 0; c < columns; c++) {
+			header.add("column" + (c + 1));
+		}
+		records.add(header);
+
+		for(int r = 0; r < rows; r++) {
+			List<String> record = new ArrayList<String>(columns);
+			record.add(String.valueOf(r));
+			for(int c = 1; c < columns; c++) {
+				record.add(String.valueOf(random.nextInt(cardinality)));
+			}
+			records.add(record);
+		}
+		return records;
+	}
+
+	/***
+	 * Relational input over records in memory (the first record is the header, it is not returned as data).
+	 */
+	private static class InMemoryInput implements RelationalInput {
+
+		private final String relationName;
+		private final List<List<String>> records;
+		private int next = 1;
+
+		InMemoryInput(String relationName, List<List<String>> records) {
+			this.relationName = relationName;
+			this.records = records;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < records.size();
+		}
+
+		@Override
+		public List<String> next() {
+			return records.get(next++);
+		}
+
+		@Override
+		public int numberOfColumns() {
+			return records.get(0).size();
+		}
+
+		@Override
+		public String relationName() {
+			return relationName;
+		}
+
+		@Override
+		public List<String> columnNames() {
+			return records.get(0);
+		}
+	}
+}
@@ -3,8 +3,10 @@ package de.uni_potsdam.hpi.metanome_test_runner;
 public class Main {
 
 	public static void main(String[] args) {
-		MetanomeTestRunner.run();
-		//MetanomeTestRunner.run(args);
+		if (args.length > 0)
+			MetanomeTestRunner.run(args);
+		else
+			MetanomeTestRunner.run();
 	}
 
 }
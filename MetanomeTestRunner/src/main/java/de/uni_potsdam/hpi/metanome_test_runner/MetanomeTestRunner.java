@@ -1,8 +1,10 @@
 package de.uni_potsdam.hpi.metanome_test_runner;
 
 import java.io.File;
+import java.util.Arrays;
 
 import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+import de.uni_potsdam.hpi.metanome_test_runner.experiments.ScalabilityExperiment;
 import de.uni_potsdam.hpi.metanome_test_runner.mocks.MetanomeMock;
 
 public class MetanomeTestRunner {
@@ -14,6 +16,11 @@ public class MetanomeTestRunner {
 	}
 
 	public static void run(String[] args) {
+		if (args.length > 0 && args[0].equalsIgnoreCase("scalability")) {
+			ScalabilityExperiment.run(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		
 		if (args.length != 2)
 			wrongArguments(args);
 		
@@ -29,7 +36,7 @@ public class MetanomeTestRunner {
 			if (possibleDataset.name().toLowerCase().equals(datasetArg))
 				dataset = possibleDataset;
 
-		if ((algorithm == null))
+		if ((algorithm == null) || (dataset == null))
 			wrongArguments(args);
 		
 		Config conf = new Config(algorithm, dataset);
@@ -40,7 +47,7 @@ public class MetanomeTestRunner {
 	private static void wrongArguments(String[] args) {
 		StringBuilder message = new StringBuilder();
 		message.append("\r\nArguments not supported!");
-		message.append("\r\nProvide correct values: <algorithm> <dataset>");
+		message.append("\r\nProvide correct values: <algorithm> <dataset> or scalability <key>=<values>...");
 		throw new RuntimeException(message.toString());
 	}
 	
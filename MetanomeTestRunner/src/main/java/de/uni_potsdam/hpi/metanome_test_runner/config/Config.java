@@ -1,6 +1,10 @@
 package de.uni_potsdam.hpi.metanome_test_runner.config;
 
 import java.io.File;
+import java.util.Arrays;
+
+import de.metanome.algorithms.LucieKerstinUCCAlgorithm;
+import de.metanome.algorithms.pli.PliCache;
 
 public class Config {
 
@@ -9,13 +13,13 @@ public class Config {
 	}
 	
 	public enum Dataset {
-		PLANETS, VOTER, VOTER_1K, TEST
+		PLANETS, PLANETS_ALL, VOTER, VOTER_1K, TEST
 	}
 	
 	public Config.Algorithm algorithm = Config.Algorithm.MYUCC;
 	
 	public String databaseName = null;
-	public String[] tableNames = null;
+	public String[] tableNames = null; // null = all files of the database folder with the input file ending (batch mode for more than one table)
 	
 	public String inputFolderPath = "data" + File.separator;
 	public String inputFileEnding = ".csv";
@@ -25,15 +29,40 @@ public class Config {
 	public int inputFileSkipLines = 0;
 	public boolean inputFileStrictQuotes = false;
 	public boolean inputFileIgnoreLeadingWhiteSpace = true;
-	public boolean inputFileHasHeader = false;
+	public boolean inputFileHasHeader = true; // The first line (after the skipped lines) holds the column names (false = columns are named column1, column2, ...)
 	public boolean inputFileSkipDifferingLines = true; // Skip lines that differ from the dataset's schema
+	public int inputParallelism = 0; // Number of threads that parse and encode the input file (0 = read it with the DefaultFileInputGenerator)
+	public String inputFileCharset = "UTF-8"; // Charset of the input files that are read in parallel (must encode ASCII chars as single bytes)
 	
 	public String measurementsFolderPath = "io" + File.separator + "measurements" + File.separator; // + "BINDER" + File.separator;
+	public String scalabilityFolderPath = "io" + File.separator + "scalability" + File.separator; // Generated tables and results of the scalability experiments
 	
 	public String statisticsFileName = "statistics.txt";
 	public String resultFileName = "results.txt";
+	public String fdResultFileName = "fds.txt";
+	public String batchSummaryFileName = "batch.csv";
+	public String metricsJsonFileName = "metrics.json";
+	public String metricsCsvFileName = "metrics.csv";
+	public String scalabilityResultFileName = "scalability.csv";
 	
 	public boolean writeResults = true;
+	public boolean discoverFunctionalDependencies = false; // Discover the minimal functional dependencies as well, from the same columns, PLIs and UCCs (written to the fd result file)
+	public boolean collectMetrics = false; // Collect metrics per lattice level and write them next to the results (false = no collection overhead)
+	
+	public long pliCacheBudget = Runtime.getRuntime().maxMemory() / 4; // Memory budget of the PLI cache in bytes
+	public PliCache.Eviction pliCacheEviction = PliCache.Eviction.LRU;
+	public LucieKerstinUCCAlgorithm.Traversal traversal = LucieKerstinUCCAlgorithm.Traversal.BOTTOM_UP;
+	public double maxError = 0; // Share of the rows that may be removed to make a column combination unique (g3 error; 0 = exact UCCs)
+	public int parallelism = 1; // Number of threads that check the candidates of a lattice level
+	public String spillFolderPath = null; // Folder for memory-mapped columns and PLIs of tables that do not fit into the heap (null = keep tables in heap)
+	public String snapshotFolderPath = null; // Folder for snapshots of finished runs; an unchanged input file is loaded from its snapshot (null = no snapshots)
+	public long timeBudgetMillis = 0; // Time after which a bottom-up run stops and emits the UCCs found so far (0 = no budget)
+	public long memoryBudgetBytes = 0; // Heap usage at which a bottom-up run stops and emits the UCCs found so far (0 = no budget)
+	public String checkpointFolderPath = null; // Folder for the checkpoints of stopped runs; the next run on the table continues from its checkpoint (null = no checkpoints)
+	public long progressIntervalMillis = 10000; // Time between two progress reports of a lattice level (0 = no reports)
+	public int workers = 0; // Number of worker processes that share the lattice of a table (0 = discover the UCCs in this process)
+	public String[] workerJvmOptions = {}; // JVM options of the worker processes, e.g. -Xmx4g
+	public int batchParallelism = Runtime.getRuntime().availableProcessors(); // Number of threads that share the tables of a batch (and the input and checks of its big tables)
 	
 	public Config() {
 		this(Config.Algorithm.MYUCC, Config.Dataset.PLANETS);
@@ -48,19 +77,23 @@ public class Config {
 		switch (dataset) {
 			case PLANETS:
 				this.databaseName = "planets";
-				this.tableNames = new String[] {"WDC_planets"}; // TODO: Add all tables of the planets data set here for the IND detection task!
+				this.tableNames = new String[] {"WDC_planets"};
+				break;
+			case PLANETS_ALL:
+				this.databaseName = "planets";
+				this.tableNames = null;
 				break;
 			case VOTER:
                 this.databaseName = "huge";
-                this.tableNames = new String[] {"ncvoter"}; // TODO: Add all tables of the planets data set here for the IND detection task!
+                this.tableNames = new String[] {"ncvoter"};
                 break;
 			case VOTER_1K:
                 this.databaseName = "huge";
-                this.tableNames = new String[] {"ncvoter-1k"}; // TODO: Add all tables of the planets data set here for the IND detection task!
+                this.tableNames = new String[] {"ncvoter-1k"};
                 break;
 			case TEST:
                 this.databaseName = "planets";
-                this.tableNames = new String[] {"WDC_planets_modified"}; // TODO: Add all tables of the planets data set here for the IND detection task!
+                this.tableNames = new String[] {"WDC_planets_modified"};
                 break;
 		}
 	}
@@ -69,6 +102,24 @@ public class Config {
 	public String toString() {
 		return "Config:\r\n\t" +
 			"databaseName: " + this.databaseName + "\r\n\t" +
-			"tableNames: " + this.tableNames[0];
+			"tableNames: " + (this.tableNames == null ? "all" : this.tableNames.length == 1 ? this.tableNames[0] : Arrays.toString(this.tableNames)) + "\r\n\t" +
+			"inputParallelism: " + this.inputParallelism + "\r\n\t" +
+			"inputFileCharset: " + this.inputFileCharset + "\r\n\t" +
+			"discoverFunctionalDependencies: " + this.discoverFunctionalDependencies + "\r\n\t" +
+			"collectMetrics: " + this.collectMetrics + "\r\n\t" +
+			"pliCacheBudget: " + this.pliCacheBudget + "\r\n\t" +
+			"pliCacheEviction: " + this.pliCacheEviction + "\r\n\t" +
+			"traversal: " + this.traversal + "\r\n\t" +
+			"maxError: " + this.maxError + "\r\n\t" +
+			"parallelism: " + this.parallelism + "\r\n\t" +
+			"spillFolderPath: " + this.spillFolderPath + "\r\n\t" +
+			"snapshotFolderPath: " + this.snapshotFolderPath + "\r\n\t" +
+			"timeBudgetMillis: " + this.timeBudgetMillis + "\r\n\t" +
+			"memoryBudgetBytes: " + this.memoryBudgetBytes + "\r\n\t" +
+			"checkpointFolderPath: " + this.checkpointFolderPath + "\r\n\t" +
+			"progressIntervalMillis: " + this.progressIntervalMillis + "\r\n\t" +
+			"workers: " + this.workers + "\r\n\t" +
+			"workerJvmOptions: " + Arrays.toString(this.workerJvmOptions) + "\r\n\t" +
+			"batchParallelism: " + this.batchParallelism;
 	}
 }
@@ -0,0 +1,197 @@
+package de.uni_potsdam.hpi.metanome_test_runner.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.algorithms.lattice.ColumnCombinations;
+import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+
+/**
+ * Distributes the UCC discovery of a table over several worker processes on this machine (see Worker).
+ * 
+ * Each worker reads its own copy of the table and checks the partition of the lattice whose column combinations
+ * start with one of its leading columns. The leading columns are assigned like jobs to machines (largest first,
+ * to the least loaded worker), where column c leads 2^(n-c-1) column combinations of the n columns.
+ * The lattice is checked level by level: after each level, the coordinator collects the new UCCs of all workers
+ * and sends them to all workers, so they can prune the candidates of the next level that contain a UCC of another partition.
+ * The union of the UCCs is the same as in a single-process run (bottom-up).
+ */
+public class Coordinator {
+
+	private static final int ACCEPT_TIMEOUT = 60000;
+	
+	private final Config conf;
+	private final File inputFile;
+	
+	private String tableName = null;
+	private List<String> columnNames = null;
+	
+	public Coordinator(Config conf, File inputFile) {
+		this.conf = conf;
+		this.inputFile = inputFile;
+	}
+	
+	public void execute(UniqueColumnCombinationResultReceiver resultReceiver) throws AlgorithmExecutionException {
+		int numWorkers = Math.max(1, this.conf.workers);
+		List<Process> processes = new ArrayList<Process>();
+		List<Socket> sockets = new ArrayList<Socket>();
+		try {
+			ServerSocket server = new ServerSocket(0, numWorkers, InetAddress.getByName(null));
+			try {
+				server.setSoTimeout(ACCEPT_TIMEOUT);
+				for (int i = 0; i < numWorkers; i++)
+					processes.add(this.startWorker(server.getLocalPort()));
+				for (int i = 0; i < numWorkers; i++)
+					sockets.add(server.accept());
+			}
+			finally {
+				server.close();
+			}
+			
+			List<DataInputStream> ins = new ArrayList<DataInputStream>();
+			List<DataOutputStream> outs = new ArrayList<DataOutputStream>();
+			for (Socket socket : sockets) {
+				ins.add(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				this.sendSettings(out);
+				outs.add(out);
+			}
+			for (DataInputStream in : ins) {
+				this.tableName = in.readUTF();
+				this.columnNames = Messages.readStrings(in);
+			}
+			
+			List<BitSet> leadingColumns = this.assignLeadingColumns(this.columnNames.size(), numWorkers);
+			for (int i = 0; i < numWorkers; i++)
+				Messages.writeBitSet(outs.get(i), leadingColumns.get(i));
+			
+			// check the levels: the UCCs of a level are sent to all workers with the next level
+			List<BitSet> levelUccs = new ArrayList<BitSet>();
+			boolean finished = false;
+			while (!finished) {
+				for (DataOutputStream out : outs) {
+					out.writeInt(Messages.LEVEL);
+					Messages.writeBitSets(out, levelUccs);
+					out.flush();
+				}
+				List<BitSet> nextUccs = new ArrayList<BitSet>();
+				finished = true;
+				for (DataInputStream in : ins) {
+					nextUccs.addAll(Messages.readBitSets(in));
+					finished &= in.readInt() == 0;
+				}
+				Collections.sort(nextUccs, ColumnCombinations.LEXICOGRAPHIC);
+				for (BitSet ucc : nextUccs)
+					this.emit(ucc, resultReceiver);
+				levelUccs = nextUccs;
+			}
+			
+			for (DataOutputStream out : outs) {
+				out.writeInt(Messages.STOP);
+				out.flush();
+			}
+			for (Process process : processes)
+				process.waitFor();
+		}
+		catch (SocketTimeoutException e) {
+			throw new AlgorithmExecutionException("Workers did not connect within " + ACCEPT_TIMEOUT + " ms", e);
+		}
+		catch (IOException e) {
+			throw new AlgorithmExecutionException("Lost the connection to a worker", e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AlgorithmExecutionException("Interrupted while waiting for the workers", e);
+		}
+		finally {
+			for (Socket socket : sockets) {
+				try {
+					socket.close();
+				}
+				catch (IOException e) {
+					// the worker is gone already
+				}
+			}
+			for (Process process : processes)
+				process.destroy();
+		}
+	}
+	
+	/**
+	 * Starts a worker JVM with the class path of this JVM.
+	 */
+	private Process startWorker(int port) throws IOException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		for (String option : this.conf.workerJvmOptions)
+			command.add(option);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(Worker.class.getName());
+		command.add(InetAddress.getByName(null).getHostAddress());
+		command.add(String.valueOf(port));
+		return new ProcessBuilder(command).inheritIO().start();
+	}
+	
+	private void sendSettings(DataOutputStream out) throws IOException {
+		out.writeUTF(this.inputFile.getAbsolutePath());
+		out.writeChar(this.conf.inputFileSeparator);
+		out.writeChar(this.conf.inputFileQuotechar);
+		out.writeChar(this.conf.inputFileEscape);
+		out.writeBoolean(this.conf.inputFileStrictQuotes);
+		out.writeBoolean(this.conf.inputFileIgnoreLeadingWhiteSpace);
+		out.writeInt(this.conf.inputFileSkipLines);
+		out.writeBoolean(this.conf.inputFileHasHeader);
+		out.writeBoolean(this.conf.inputFileSkipDifferingLines);
+		out.writeInt(this.conf.inputParallelism);
+		out.writeUTF(this.conf.inputFileCharset);
+		out.writeDouble(this.conf.maxError);
+		out.writeLong(this.conf.pliCacheBudget);
+		out.writeUTF(this.conf.pliCacheEviction.name());
+		out.flush();
+	}
+	
+	/**
+	 * Assigns each column to the worker with the fewest column combinations so far, starting with the first column
+	 * (it leads the most column combinations).
+	 */
+	private List<BitSet> assignLeadingColumns(int numColumns, int numWorkers) {
+		List<BitSet> leadingColumns = new ArrayList<BitSet>();
+		double[] loads = new double[numWorkers];
+		for (int i = 0; i < numWorkers; i++)
+			leadingColumns.add(new BitSet(numColumns));
+		for (int c = 0; c < numColumns; c++) {
+			int worker = 0;
+			for (int i = 1; i < numWorkers; i++)
+				if (loads[i] < loads[worker])
+					worker = i;
+			leadingColumns.get(worker).set(c);
+			loads[worker] += Math.pow(2, numColumns - c - 1);
+		}
+		return leadingColumns;
+	}
+	
+	private void emit(BitSet ucc, UniqueColumnCombinationResultReceiver resultReceiver) throws AlgorithmExecutionException {
+		ColumnIdentifier[] identifiers = new ColumnIdentifier[ucc.cardinality()];
+		int i = 0;
+		for (int c = ucc.nextSetBit(0); c >= 0; c = ucc.nextSetBit(c + 1))
+			identifiers[i++] = new ColumnIdentifier(this.tableName, this.columnNames.get(c));
+		resultReceiver.receiveResult(new UniqueColumnCombination(identifiers));
+	}
+}
@@ -0,0 +1,69 @@
+package de.uni_potsdam.hpi.metanome_test_runner.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Messages between the coordinator and its workers (one socket per worker, data streams).
+ * 
+ * 1. coordinator -> worker: input file and settings (see Coordinator.sendSettings)
+ * 2. worker -> coordinator: table name and column names, after the input is read
+ * 3. coordinator -> worker: leading columns of the worker's partition
+ * 4. per level: coordinator -> worker: LEVEL + the new UCCs of all partitions,
+ *               worker -> coordinator: the UCCs of its partition + its number of non-unique column combinations
+ * 5. coordinator -> worker: STOP
+ */
+class Messages {
+
+	static final int LEVEL = 1;
+	static final int STOP = 2;
+	
+	private Messages() {
+	}
+	
+	static void writeBitSet(DataOutputStream out, BitSet bits) throws IOException {
+		long[] words = bits.toLongArray();
+		out.writeInt(words.length);
+		for (long word : words)
+			out.writeLong(word);
+	}
+	
+	static BitSet readBitSet(DataInputStream in) throws IOException {
+		long[] words = new long[in.readInt()];
+		for (int i = 0; i < words.length; i++)
+			words[i] = in.readLong();
+		return BitSet.valueOf(words);
+	}
+	
+	static void writeBitSets(DataOutputStream out, List<BitSet> bitSets) throws IOException {
+		out.writeInt(bitSets.size());
+		for (BitSet bits : bitSets)
+			writeBitSet(out, bits);
+	}
+	
+	static List<BitSet> readBitSets(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<BitSet> bitSets = new ArrayList<BitSet>(size);
+		for (int i = 0; i < size; i++)
+			bitSets.add(readBitSet(in));
+		return bitSets;
+	}
+	
+	static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (String string : strings)
+			out.writeUTF(string == null ? "" : string);
+	}
+	
+	static List<String> readStrings(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<String> strings = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++)
+			strings.add(in.readUTF());
+		return strings;
+	}
+}
@@ -0,0 +1,94 @@
+package de.uni_potsdam.hpi.metanome_test_runner.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.BitSet;
+import java.util.List;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.algorithms.LucieKerstinUCC;
+import de.metanome.algorithms.PartitionedTraversal;
+import de.metanome.algorithms.pli.PliCache;
+import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+import de.uni_potsdam.hpi.metanome_test_runner.mocks.MetanomeMock;
+
+/**
+ * Worker process of a distributed run (started by the Coordinator): it reads its own copy of the table
+ * and checks the column combinations of one partition of the lattice, level by level (see PartitionedTraversal).
+ * 
+ * Arguments: <coordinator host> <coordinator port>
+ */
+public class Worker {
+
+	public static void main(String[] args) {
+		if (args.length != 2)
+			throw new RuntimeException("Arguments not supported! Provide: <coordinator host> <coordinator port>");
+		
+		try {
+			Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				run(in, out);
+			}
+			finally {
+				socket.close();
+			}
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+		catch (AlgorithmExecutionException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+	
+	private static void run(DataInputStream in, DataOutputStream out) throws IOException, AlgorithmExecutionException {
+		// settings and input (see Coordinator.sendSettings)
+		Config conf = new Config();
+		File inputFile = new File(in.readUTF());
+		conf.inputFileSeparator = in.readChar();
+		conf.inputFileQuotechar = in.readChar();
+		conf.inputFileEscape = in.readChar();
+		conf.inputFileStrictQuotes = in.readBoolean();
+		conf.inputFileIgnoreLeadingWhiteSpace = in.readBoolean();
+		conf.inputFileSkipLines = in.readInt();
+		conf.inputFileHasHeader = in.readBoolean();
+		conf.inputFileSkipDifferingLines = in.readBoolean();
+		int inputParallelism = in.readInt();
+		conf.inputFileCharset = in.readUTF();
+		conf.maxError = in.readDouble();
+		conf.pliCacheBudget = in.readLong();
+		conf.pliCacheEviction = PliCache.Eviction.valueOf(in.readUTF());
+		
+		RelationalInputGenerator inputGenerator = MetanomeMock.buildInputGenerator(conf, inputFile, inputParallelism);
+		LucieKerstinUCC ucc = new LucieKerstinUCC();
+		ucc.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), inputGenerator);
+		ucc.setPliCacheBudget(conf.pliCacheBudget);
+		ucc.setPliCacheEviction(conf.pliCacheEviction);
+		ucc.setMaxError(conf.maxError);
+		
+		PartitionedTraversal traversal = new PartitionedTraversal(ucc);
+		traversal.initialize();
+		out.writeUTF(traversal.getTableName());
+		Messages.writeStrings(out, traversal.getColumnNames());
+		out.flush();
+		
+		traversal.setLeadingColumns(Messages.readBitSet(in));
+		while (in.readInt() == Messages.LEVEL) {
+			traversal.addUccs(Messages.readBitSets(in));
+			List<BitSet> uccs = traversal.checkNextLevel();
+			Messages.writeBitSets(out, uccs);
+			out.writeInt(traversal.getNumNonunique());
+			out.flush();
+		}
+	}
+}
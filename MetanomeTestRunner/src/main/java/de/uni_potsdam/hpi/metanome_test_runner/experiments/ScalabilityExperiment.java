@@ -0,0 +1,234 @@
+package de.uni_potsdam.hpi.metanome_test_runner.experiments;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.algorithms.LucieKerstinUCC;
+import de.metanome.algorithms.LucieKerstinUCCAlgorithm;
+import de.metanome.algorithms.Metrics;
+import de.metanome.backend.result_receiver.ResultsCache;
+import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+import de.uni_potsdam.hpi.metanome_test_runner.mocks.MetanomeMock;
+
+/**
+ * Runs a matrix of scalability experiments on synthetic tables (see SyntheticTableGenerator), driven by the command line:
+ *
+ *   scalability rows=1000,100000 columns=10,20 cardinality=10,100/100000 nulls=0,0.1 uccs=2,2+3 traversal=BOTTOM_UP,HYBRID parallelism=1,4 repetitions=3
+ *
+ * Each argument is a comma-separated list of values; all combinations of the values are run. A cardinality value lists the
+ * cardinalities of the columns separated by '/' (applied cyclically), an uccs value the sizes of the planted UCCs separated by '+'
+ * ("none" = no planted UCC). Further arguments: seed (of the generated tables), inputParallelism, keepTables (true = keep the
+ * generated tables) and out (result file). Each table is generated once and checked by all traversals and repetitions.
+ *
+ * Each run writes one line to the result file: the configuration, runtime, peak heap, generated and checked candidates,
+ * number of UCCs and whether all planted UCCs were found.
+ */
+public class ScalabilityExperiment {
+
+	private static final String HEADER = "rows,columns,cardinality,nulls,uccs,traversal,parallelism,repetition,"
+			+ "runtimeMillis,peakHeapBytes,generated,checked,discoveredUccs,plantedFound";
+
+	private final Config conf;
+	private final Map<String, List<String>> arguments = new LinkedHashMap<String, List<String>>();
+
+	public ScalabilityExperiment(Config conf, String[] args) {
+		this.conf = conf;
+		this.arguments.put("rows", Arrays.asList("10000"));
+		this.arguments.put("columns", Arrays.asList("10"));
+		this.arguments.put("cardinality", Arrays.asList("100"));
+		this.arguments.put("nulls", Arrays.asList("0"));
+		this.arguments.put("uccs", Arrays.asList("2"));
+		this.arguments.put("traversal", Arrays.asList(LucieKerstinUCCAlgorithm.Traversal.BOTTOM_UP.name()));
+		this.arguments.put("parallelism", Arrays.asList("1"));
+		this.arguments.put("repetitions", Arrays.asList("3"));
+		this.arguments.put("seed", Arrays.asList("1"));
+		this.arguments.put("inputParallelism", Arrays.asList("0"));
+		this.arguments.put("keepTables", Arrays.asList("false"));
+		this.arguments.put("out", Arrays.asList(conf.scalabilityFolderPath + conf.scalabilityResultFileName));
+
+		for (String arg : args) {
+			int split = arg.indexOf('=');
+			if (split < 0 || !this.arguments.containsKey(arg.substring(0, split)))
+				wrongArgument(arg);
+			List<String> values = Arrays.asList(arg.substring(split + 1).split(","));
+			if (values.isEmpty() || (values.size() > 1 && !isMatrixArgument(arg.substring(0, split))))
+				wrongArgument(arg);
+			this.arguments.put(arg.substring(0, split), values);
+		}
+	}
+
+	public static void run(String[] args) {
+		try {
+			new ScalabilityExperiment(new Config(), args).execute();
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public void execute() throws IOException {
+		int repetitions = Integer.parseInt(this.single("repetitions"));
+		long seed = Long.parseLong(this.single("seed"));
+		boolean keepTables = Boolean.parseBoolean(this.single("keepTables"));
+		File resultFile = new File(this.single("out"));
+
+		// the input is read like a data set file with column names in its first line
+		this.conf.inputFileHasHeader = true;
+		this.conf.inputFileSkipLines = 0;
+		this.conf.collectMetrics = true;
+
+		Writer writer = buildFileWriter(resultFile);
+		try {
+			writer.write(HEADER + "\r\n");
+			for (String rows : this.arguments.get("rows"))
+				for (String columns : this.arguments.get("columns"))
+					for (String cardinality : this.arguments.get("cardinality"))
+						for (String nulls : this.arguments.get("nulls"))
+							for (String uccs : this.arguments.get("uccs")) {
+								SyntheticTableGenerator generator;
+								try {
+									generator = new SyntheticTableGenerator(Integer.parseInt(rows), Integer.parseInt(columns),
+											parseList(cardinality, "/"), Double.parseDouble(nulls), parseList(uccs, "\\+"), seed);
+								}
+								catch (IllegalArgumentException e) {
+									System.out.println("Skipped " + rows + " rows, " + columns + " columns, uccs " + uccs + ": " + e.getMessage());
+									continue;
+								}
+								File table = new File(this.conf.scalabilityFolderPath + "synthetic_" + rows + "_" + columns + "_"
+										+ cardinality.replace('/', '-') + "_" + nulls + "_" + uccs + "_" + seed + this.conf.inputFileEnding);
+								generator.write(table);
+								System.out.println("Generated " + table.getName() + ": " + generator);
+
+								try {
+									String configuration = rows + "," + columns + "," + cardinality + "," + nulls + "," + uccs;
+									for (String traversal : this.arguments.get("traversal"))
+										for (String parallelism : this.arguments.get("parallelism"))
+											for (int repetition = 1; repetition <= repetitions; repetition++) {
+												String line = configuration + "," + traversal + "," + parallelism + "," + repetition + ","
+														+ this.measure(table, generator.getPlantedUccs(), LucieKerstinUCCAlgorithm.Traversal.valueOf(traversal.toUpperCase()), Integer.parseInt(parallelism));
+												System.out.println(line);
+												writer.write(line + "\r\n");
+												writer.flush();
+											}
+								}
+								finally {
+									if (!keepTables)
+										table.delete();
+								}
+							}
+		}
+		finally {
+			writer.close();
+		}
+		System.out.println("Results written to " + resultFile.getPath());
+	}
+
+	/**
+	 * Discovers the UCCs of a table once.
+	 *
+	 * @return the measurements of the run (comma-separated)
+	 */
+	private String measure(File table, List<List<String>> plantedUccs, LucieKerstinUCCAlgorithm.Traversal traversal, int parallelism) throws IOException {
+		// start each run with the same heap, so the peak heap of a run does not include garbage of the previous one
+		System.gc();
+		try {
+			RelationalInputGenerator inputGenerator = MetanomeMock.buildInputGenerator(this.conf, table, Integer.parseInt(this.single("inputParallelism")));
+			ResultsCache resultReceiver = new ResultsCache();
+
+			LucieKerstinUCC ucc = new LucieKerstinUCC();
+			ucc.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), inputGenerator);
+			ucc.setResultReceiver((UniqueColumnCombinationResultReceiver) resultReceiver);
+			ucc.setPliCacheBudget(this.conf.pliCacheBudget);
+			ucc.setPliCacheEviction(this.conf.pliCacheEviction);
+			ucc.setTraversal(traversal);
+			ucc.setParallelism(parallelism);
+			ucc.setCollectMetrics(this.conf.collectMetrics);
+
+			long time = System.currentTimeMillis();
+			ucc.execute();
+			time = System.currentTimeMillis() - time;
+
+			Set<List<String>> discovered = new HashSet<List<String>>();
+			for (Result result : resultReceiver.getNewResults()) {
+				List<String> columnNames = new ArrayList<String>();
+				for (ColumnIdentifier column : ((UniqueColumnCombination) result).getColumnCombination().getColumnIdentifiers())
+					columnNames.add(column.getColumnIdentifier());
+				Collections.sort(columnNames);
+				discovered.add(columnNames);
+			}
+			boolean plantedFound = true;
+			for (List<String> planted : plantedUccs) {
+				List<String> columnNames = new ArrayList<String>(planted);
+				Collections.sort(columnNames);
+				plantedFound &= discovered.contains(columnNames);
+			}
+
+			long peakHeapBytes = 0, generated = 0, checked = 0;
+			Metrics metrics = ucc.getMetrics();
+			if (metrics != null) {
+				peakHeapBytes = metrics.getPeakHeapBytes();
+				for (Metrics.Level level : metrics.getLevels()) {
+					generated += level.getGenerated();
+					checked += level.getChecked();
+				}
+			}
+			return time + "," + peakHeapBytes + "," + generated + "," + checked + "," + discovered.size() + "," + plantedFound;
+		}
+		catch (AlgorithmExecutionException e) {
+			e.printStackTrace();
+			return "failed,,,,,";
+		}
+	}
+
+	private String single(String key) {
+		return this.arguments.get(key).get(0);
+	}
+
+	private static boolean isMatrixArgument(String key) {
+		return !key.equals("repetitions") && !key.equals("seed") && !key.equals("inputParallelism") && !key.equals("keepTables") && !key.equals("out");
+	}
+
+	private static int[] parseList(String value, String separator) {
+		if (value.equalsIgnoreCase("none"))
+			return new int[0];
+		String[] parts = value.split(separator);
+		int[] list = new int[parts.length];
+		for (int i = 0; i < parts.length; i++)
+			list[i] = Integer.parseInt(parts[i].trim());
+		return list;
+	}
+
+	private static void wrongArgument(String arg) {
+		StringBuilder message = new StringBuilder();
+		message.append("\r\nArgument not supported: " + arg);
+		message.append("\r\nProvide <key>=<value>[,<value>...] with the keys rows, columns, cardinality, nulls, uccs, traversal, parallelism");
+		message.append("\r\nand <key>=<value> with the keys repetitions, seed, inputParallelism, keepTables, out");
+		throw new RuntimeException(message.toString());
+	}
+
+	private static BufferedWriter buildFileWriter(File file) throws IOException {
+		File folder = file.getAbsoluteFile().getParentFile();
+		if (!folder.exists() && !folder.mkdirs())
+			throw new IOException("Could not create " + folder);
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, false), Charset.forName("ISO-8859-1")));
+	}
+}
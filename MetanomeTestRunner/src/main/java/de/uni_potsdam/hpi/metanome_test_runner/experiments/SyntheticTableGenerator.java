@@ -0,0 +1,174 @@
+package de.uni_potsdam.hpi.metanome_test_runner.experiments;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a csv table with a controlled number of rows and columns, value cardinality per column, null ratio
+ * and planted UCCs, so the scalability of the discovery can be measured on tables of any shape.
+ *
+ * The planted UCCs are disjoint column combinations at the front of the table. The k columns of a planted UCC hold
+ * the k digits (base b, with b^k >= rows) of a random permutation of the row numbers: the combination is unique,
+ * but each subset has at most b^(k-1) < rows distinct values, so it is a minimal UCC. The other columns hold random
+ * values below their cardinality, or null (empty) with the null ratio. The first line holds the column names.
+ * The same seed generates the same table.
+ */
+public class SyntheticTableGenerator {
+
+	private final int numRows;
+	private final int numColumns;
+	private final int[] cardinalities;
+	private final double nullRatio;
+	private final int[] plantedSizes;
+	private final long seed;
+
+	/**
+	 * @param cardinalities number of distinct values per column, applied cyclically to the columns (planted columns ignore them)
+	 * @param plantedSizes number of columns of each planted UCC
+	 */
+	public SyntheticTableGenerator(int numRows, int numColumns, int[] cardinalities, double nullRatio, int[] plantedSizes, long seed) {
+		if (numRows < 2 || numColumns < 1)
+			throw new IllegalArgumentException("A table needs at least 2 rows and 1 column: " + numRows + " rows, " + numColumns + " columns");
+		if (cardinalities.length == 0)
+			throw new IllegalArgumentException("No cardinalities");
+		for (int cardinality : cardinalities)
+			if (cardinality < 1)
+				throw new IllegalArgumentException("Cardinality must be positive: " + cardinality);
+		if (nullRatio < 0 || nullRatio >= 1)
+			throw new IllegalArgumentException("Null ratio must be in [0, 1): " + nullRatio);
+		int plantedColumns = 0;
+		for (int size : plantedSizes) {
+			if (size < 1)
+				throw new IllegalArgumentException("A planted UCC needs at least 1 column: " + size);
+			// each subset must have fewer distinct values than rows, otherwise the planted UCC is not minimal
+			if (power(base(numRows, size), size - 1) >= numRows)
+				throw new IllegalArgumentException("A planted UCC of " + size + " columns is not minimal in " + numRows + " rows");
+			plantedColumns += size;
+		}
+		if (plantedColumns > numColumns)
+			throw new IllegalArgumentException("The planted UCCs need " + plantedColumns + " columns, but the table has " + numColumns);
+
+		this.numRows = numRows;
+		this.numColumns = numColumns;
+		this.cardinalities = cardinalities.clone();
+		this.nullRatio = nullRatio;
+		this.plantedSizes = plantedSizes.clone();
+		this.seed = seed;
+	}
+
+	public static String columnName(int column) {
+		return "column" + (column + 1);
+	}
+
+	/**
+	 * @return the column names of each planted UCC
+	 */
+	public List<List<String>> getPlantedUccs() {
+		List<List<String>> planted = new ArrayList<List<String>>();
+		int column = 0;
+		for (int size : this.plantedSizes) {
+			List<String> columnNames = new ArrayList<String>();
+			for (int i = 0; i < size; i++)
+				columnNames.add(columnName(column++));
+			planted.add(columnNames);
+		}
+		return planted;
+	}
+
+	public void write(File file) throws IOException {
+		File folder = file.getAbsoluteFile().getParentFile();
+		if (!folder.exists() && !folder.mkdirs())
+			throw new IOException("Could not create " + folder);
+
+		Random random = new Random(this.seed);
+		int[][] permutations = new int[this.plantedSizes.length][];
+		int[] bases = new int[this.plantedSizes.length];
+		for (int u = 0; u < this.plantedSizes.length; u++) {
+			permutations[u] = permutation(this.numRows, random);
+			bases[u] = base(this.numRows, this.plantedSizes[u]);
+		}
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), Charset.forName("ISO-8859-1")), 1 << 16);
+		try {
+			StringBuilder line = new StringBuilder();
+			for (int c = 0; c < this.numColumns; c++) {
+				if (c > 0)
+					line.append(',');
+				line.append(columnName(c));
+			}
+			writer.write(line.append("\r\n").toString());
+
+			for (int row = 0; row < this.numRows; row++) {
+				line.setLength(0);
+				int column = 0;
+				for (int u = 0; u < this.plantedSizes.length; u++) {
+					int value = permutations[u][row];
+					for (int i = 0; i < this.plantedSizes[u]; i++) {
+						if (column++ > 0)
+							line.append(',');
+						line.append(value % bases[u]);
+						value /= bases[u];
+					}
+				}
+				for (; column < this.numColumns; column++) {
+					if (column > 0)
+						line.append(',');
+					if (this.nullRatio > 0 && random.nextDouble() < this.nullRatio)
+						continue;
+					line.append(random.nextInt(this.cardinalities[column % this.cardinalities.length]));
+				}
+				writer.write(line.append("\r\n").toString());
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.numRows + " rows, " + this.numColumns + " columns, cardinalities " + Arrays.toString(this.cardinalities)
+				+ ", null ratio " + this.nullRatio + ", planted UCCs " + Arrays.toString(this.plantedSizes);
+	}
+
+	/**
+	 * @return the smallest base b with b^size >= numRows
+	 */
+	private static int base(int numRows, int size) {
+		int base = Math.max(2, (int) Math.floor(Math.pow(numRows, 1.0 / size)));
+		while (power(base, size) < numRows)
+			base++;
+		while (base > 2 && power(base - 1, size) >= numRows)
+			base--;
+		return base;
+	}
+
+	private static long power(int base, int exponent) {
+		long result = 1;
+		for (int i = 0; i < exponent && result < Integer.MAX_VALUE; i++)
+			result *= base;
+		return result;
+	}
+
+	private static int[] permutation(int size, Random random) {
+		int[] permutation = new int[size];
+		for (int i = 0; i < size; i++)
+			permutation[i] = i;
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = permutation[i];
+			permutation[i] = permutation[j];
+			permutation[j] = swap;
+		}
+		return permutation;
+	}
+}
@@ -0,0 +1,203 @@
+package de.uni_potsdam.hpi.metanome_test_runner.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses the records of a byte range of a CSV file.
+ * A record belongs to the range, if it starts in the range; the last record may end behind the range.
+ * 
+ * Quoting follows the rules of the DefaultFileInputGenerator (opencsv): each quote char toggles the quoted state,
+ * two quote chars within quotes stand for one quote char and the escape char escapes a following quote or escape char.
+ * Line breaks (\n, \r\n or \r) within quotes are part of the value; like opencsv, which joins the lines of a value, they become \n.
+ * Empty values are null.
+ * 
+ * Only the quote char, the escape char and line breaks decide where records start, so the quoted state at any position
+ * follows from the parity of the (unescaped) quote chars before it (see countQuotes).
+ * 
+ * The records are split on bytes, so the separator, quote and escape char must be ASCII chars and the charset must
+ * encode ASCII chars as single bytes that do not occur within other chars, e.g. UTF-8 or ISO-8859-1.
+ * Values that are not valid in the charset are rejected.
+ */
+public class CsvParser {
+
+	private final ByteBuffer bytes;
+	private final int end;
+	private final byte separator;
+	private final byte quotechar;
+	private final byte escape;
+	private final boolean ignoreLeadingWhiteSpace;
+	private final CharsetDecoder decoder;
+	
+	private int position;
+	private byte[] value = new byte[64];
+	private int valueLength = 0;
+
+	public CsvParser(ByteBuffer bytes, int start, int end, char separator, char quotechar, char escape, boolean ignoreLeadingWhiteSpace, Charset charset) {
+		checkSyntax(separator, quotechar, escape, charset);
+		this.bytes = bytes;
+		this.position = start;
+		this.end = end;
+		this.separator = (byte) separator;
+		this.quotechar = (byte) quotechar;
+		// an escape char that equals the quote char is handled as doubled quote char
+		this.escape = escape == quotechar ? 0 : (byte) escape;
+		this.ignoreLeadingWhiteSpace = ignoreLeadingWhiteSpace;
+		this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+	}
+	
+	/**
+	 * @throws IllegalArgumentException if the chars or the charset cannot be parsed byte by byte (see class comment)
+	 */
+	public static void checkSyntax(char separator, char quotechar, char escape, Charset charset) {
+		for (char c : new char[] {separator, quotechar, escape})
+			if (c > 127)
+				throw new IllegalArgumentException("Separator, quote and escape char must be ASCII chars: " + c);
+		byte[] ascii = new byte[128];
+		for (int i = 0; i < ascii.length; i++)
+			ascii[i] = (byte) i;
+		if (!Arrays.equals(ascii, new String(ascii, Charset.forName("US-ASCII")).getBytes(charset)))
+			throw new IllegalArgumentException("The charset must encode ASCII chars as single bytes: " + charset);
+	}
+	
+	/**
+	 * Moves a range boundary forward, so it is not directly behind an escape char.
+	 * In that way, the byte at the boundary is never escaped, no matter what comes before.
+	 */
+	public static int adjustBoundary(ByteBuffer bytes, int boundary, char escape) {
+		while (boundary > 0 && boundary < bytes.limit() && bytes.get(boundary - 1) == (byte) escape)
+			boundary++;
+		return boundary;
+	}
+	
+	/**
+	 * @return true, if the range contains an odd number of unescaped quote chars, i.e. it flips the quoted state
+	 */
+	public boolean countQuotes() {
+		boolean odd = false;
+		for (int i = position; i < end; i++) {
+			byte b = bytes.get(i);
+			if (b == escape && isEscapable(i + 1))
+				i++;
+			else if (b == quotechar)
+				odd = !odd;
+		}
+		return odd;
+	}
+	
+	/**
+	 * Skips the rest of the record that started before the range.
+	 * 
+	 * @param quoted quoted state at the start of the range
+	 */
+	public void skipToRecordStart(boolean quoted) {
+		if (position == 0 || (!quoted && isLineBreak(bytes.get(position - 1))))
+			return;
+		while (position < end) {
+			byte b = bytes.get(position++);
+			if (b == escape && isEscapable(position))
+				position++;
+			else if (b == quotechar)
+				quoted = !quoted;
+			else if (!quoted && isLineBreak(b))
+				return;
+		}
+	}
+	
+	/**
+	 * @return the next record that starts in the range or null, if there is none
+	 * @throws CharacterCodingException if a value is not valid in the charset
+	 */
+	public List<String> next() throws CharacterCodingException {
+		// skip empty lines (and the \n of \r\n)
+		while (position < end && isLineBreak(bytes.get(position)))
+			position++;
+		if (position >= end)
+			return null;
+
+		List<String> record = new ArrayList<String>();
+		boolean quoted = false;
+		boolean wasQuoted = false;
+		int limit = bytes.limit();
+		valueLength = 0;
+		
+		while (position < limit) {
+			byte b = bytes.get(position++);
+			if (b == escape && isEscapable(position)) {
+				append(bytes.get(position++));
+			}
+			else if (b == quotechar) {
+				if (quoted && position < limit && bytes.get(position) == quotechar)
+					append(bytes.get(position++));
+				else
+					quoted = !quoted;
+				wasQuoted = true;
+			}
+			else if (quoted && b == '\r') {
+				append((byte) '\n');
+				if (position < limit && bytes.get(position) == '\n')
+					position++;
+			}
+			else if (quoted) {
+				append(b);
+			}
+			else if (b == separator) {
+				record.add(value());
+				wasQuoted = false;
+			}
+			else if (isLineBreak(b)) {
+				break;
+			}
+			else if (ignoreLeadingWhiteSpace && valueLength == 0 && !wasQuoted && Character.isWhitespace(b) && isQuoteAfterWhiteSpace(position)) {
+				// white space before a quote char is ignored
+			}
+			else {
+				append(b);
+			}
+		}
+		record.add(value());
+		return record;
+	}
+	
+	private boolean isEscapable(int index) {
+		if (index >= bytes.limit())
+			return false;
+		byte next = bytes.get(index);
+		return next == quotechar || next == escape;
+	}
+	
+	private boolean isQuoteAfterWhiteSpace(int index) {
+		while (index < bytes.limit() && Character.isWhitespace(bytes.get(index)) && !isLineBreak(bytes.get(index)))
+			index++;
+		return index < bytes.limit() && bytes.get(index) == quotechar;
+	}
+	
+	/**
+	 * @return position behind the last parsed record
+	 */
+	public int getPosition() {
+		return position;
+	}
+	
+	private static boolean isLineBreak(byte b) {
+		return b == '\n' || b == '\r';
+	}
+	
+	private void append(byte b) {
+		if (valueLength == value.length)
+			value = Arrays.copyOf(value, value.length * 2);
+		value[valueLength++] = b;
+	}
+	
+	private String value() throws CharacterCodingException {
+		int length = valueLength;
+		valueLength = 0;
+		return length == 0 ? null : decoder.decode(ByteBuffer.wrap(value, 0, length)).toString();
+	}
+}
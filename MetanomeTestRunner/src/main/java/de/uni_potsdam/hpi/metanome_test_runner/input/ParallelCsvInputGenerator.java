@@ -0,0 +1,383 @@
+package de.uni_potsdam.hpi.metanome_test_runner.input;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.algorithms.data.EncodedColumns;
+import de.metanome.algorithms.data.EncodedInputGenerator;
+
+/**
+ * Reads a CSV file with several threads and encodes it on the fly.
+ * 
+ * 1. The file is mapped into memory and split into one byte range per thread.
+ * 2. Each thread counts the quote chars of its range. The parities of all earlier ranges tell
+ *    whether a range starts within quotes, so each thread can find the first record that starts in its range.
+ * 3. Each thread parses the records of its range and encodes them with its own dictionaries (shard).
+ * 4. The dictionaries of the shards are merged column by column and the value ids are translated.
+ * 
+ * Like for the DefaultFileInputGenerator, the first record (after the skipped lines) holds the column names,
+ * if the file has a header; otherwise it is the first data record and the columns are named column1, column2, ...
+ * Strict quotes are not supported. Files are limited to 2 GB (one mapping). The charset and the separator,
+ * quote and escape chars are restricted as described in CsvParser.
+ */
+public class ParallelCsvInputGenerator implements EncodedInputGenerator {
+
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	private final File file;
+	private final char separator;
+	private final char quotechar;
+	private final char escape;
+	private final boolean ignoreLeadingWhiteSpace;
+	private final int skipLines;
+	private final boolean hasHeader;
+	private final boolean skipDifferingLines;
+	private final int numThreads;
+	private final Charset charset;
+	private ExecutorService executor = null;
+	
+	public ParallelCsvInputGenerator(File file, char separator, char quotechar, char escape, boolean ignoreLeadingWhiteSpace, 
+			int skipLines, boolean hasHeader, boolean skipDifferingLines, int numThreads, Charset charset) throws FileNotFoundException {
+		if (!file.isFile())
+			throw new FileNotFoundException(file.getPath());
+		CsvParser.checkSyntax(separator, quotechar, escape, charset);
+		this.file = file;
+		this.separator = separator;
+		this.quotechar = quotechar;
+		this.escape = escape;
+		this.ignoreLeadingWhiteSpace = ignoreLeadingWhiteSpace;
+		this.skipLines = skipLines;
+		this.hasHeader = hasHeader;
+		this.skipDifferingLines = skipDifferingLines;
+		this.numThreads = Math.max(1, numThreads);
+		this.charset = charset;
+	}
+	
+	/**
+	 * @param executor threads that parse and encode the ranges, e.g. shared with other tables (null = own threads; it is not shut down)
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+	
+	@Override
+	public String getRelationName() {
+		return this.file.getName();
+	}
+	
+	@Override
+	public List<String> getColumnNames() throws InputGenerationException {
+		return this.readColumnNames(this.map());
+	}
+	
+	@Override
+	public RelationalInput generateNewCopy() throws InputGenerationException {
+		ByteBuffer bytes = this.map();
+		final List<String> header = this.readColumnNames(bytes);
+		final CsvParser parser = this.buildParser(bytes, this.findFirstRecord(bytes), bytes.limit());
+		final List<String> firstRecord;
+		try {
+			firstRecord = this.readRecord(parser, header.size());
+		}
+		catch (CharacterCodingException e) {
+			throw new InputGenerationException("Could not decode " + this.file + " as " + this.charset, e);
+		}
+		
+		return new RelationalInput() {
+			private List<String> nextRecord = firstRecord;
+			
+			@Override
+			public boolean hasNext() {
+				return this.nextRecord != null;
+			}
+
+			@Override
+			public List<String> next() throws InputIterationException {
+				List<String> record = this.nextRecord;
+				try {
+					this.nextRecord = readRecord(parser, header.size());
+				}
+				catch (CharacterCodingException e) {
+					throw new InputIterationException("Could not decode " + file + " as " + charset, e);
+				}
+				return record;
+			}
+
+			@Override
+			public int numberOfColumns() {
+				return header.size();
+			}
+
+			@Override
+			public String relationName() {
+				return getRelationName();
+			}
+
+			@Override
+			public List<String> columnNames() {
+				return header;
+			}
+		};
+	}
+	
+	@Override
+	public EncodedColumns generateEncodedColumns() throws InputGenerationException {
+		ByteBuffer bytes = this.map();
+		final int numColumns = this.readColumnNames(bytes).size();
+		
+		// 1. split the records into ranges
+		final int[] boundaries = new int[this.numThreads + 1];
+		int start = this.findFirstRecord(bytes);
+		boundaries[0] = start;
+		for (int i = 1; i < this.numThreads; i++) {
+			int boundary = (int) (start + (long) (bytes.limit() - start) * i / this.numThreads);
+			boundaries[i] = Math.max(boundaries[i - 1], CsvParser.adjustBoundary(bytes, boundary, this.escape));
+		}
+		boundaries[this.numThreads] = bytes.limit();
+		
+		ExecutorService executor = this.executor != null ? this.executor : Executors.newFixedThreadPool(this.numThreads);
+		try {
+			// 2. find out which ranges start within quotes (the last range does not matter)
+			List<Future<Boolean>> parities = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < this.numThreads - 1; i++) {
+				final CsvParser parser = this.buildParser(bytes, boundaries[i], boundaries[i + 1]);
+				parities.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						return Boolean.valueOf(parser.countQuotes());
+					}
+				}));
+			}
+			boolean[] quoted = new boolean[this.numThreads];
+			for (int i = 1; i < this.numThreads; i++)
+				quoted[i] = quoted[i - 1] ^ parities.get(i - 1).get().booleanValue();
+			
+			// 3. parse and encode the records of each range
+			List<Future<Shard>> futures = new ArrayList<Future<Shard>>();
+			for (int i = 0; i < this.numThreads; i++) {
+				final CsvParser parser = this.buildParser(bytes, boundaries[i], boundaries[i + 1]);
+				final boolean rangeQuoted = quoted[i];
+				final boolean first = i == 0;
+				futures.add(executor.submit(new Callable<Shard>() {
+					@Override
+					public Shard call() throws CharacterCodingException {
+						if (!first)
+							parser.skipToRecordStart(rangeQuoted);
+						Shard shard = new Shard(numColumns);
+						List<String> record;
+						while ((record = readRecord(parser, numColumns)) != null)
+							shard.add(record);
+						return shard;
+					}
+				}));
+			}
+			final List<Shard> shards = new ArrayList<Shard>();
+			for (Future<Shard> future : futures)
+				shards.add(future.get());
+			
+			// 4. merge the dictionaries of all shards
+			int numRows = 0;
+			for (Shard shard : shards)
+				numRows += shard.numRows;
+			final int[][] columns = new int[numColumns][numRows];
+			final int[] distinctCounts = new int[numColumns];
+			int[] nullCounts = new int[numColumns];
+			for (Shard shard : shards)
+				for (int c = 0; c < numColumns; c++)
+					nullCounts[c] += shard.nullCounts[c];
+			List<Future<?>> merges = new ArrayList<Future<?>>();
+			for (int c = 0; c < numColumns; c++) {
+				final int column = c;
+				merges.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						distinctCounts[column] = merge(shards, column, columns[column]);
+					}
+				}));
+			}
+			for (Future<?> merge : merges)
+				merge.get();
+			
+			return new ColumnStore(columns, distinctCounts, nullCounts);
+		}
+		catch (InterruptedException e) {
+			throw new InputGenerationException("Interrupted while reading " + this.file, e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof CharacterCodingException)
+				throw new InputGenerationException("Could not decode " + this.file + " as " + this.charset, e.getCause());
+			throw new InputGenerationException("Could not read " + this.file, e.getCause());
+		}
+		finally {
+			if (executor != this.executor)
+				executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Translates the value ids of all shards of a column into global ids.
+	 * 
+	 * @return number of distinct non-null values of the column
+	 */
+	private static int merge(List<Shard> shards, int column, int[] values) {
+		Map<String, Integer> ids = new HashMap<String, Integer>();
+		int offset = 0;
+		for (Shard shard : shards) {
+			Map<String, Integer> dictionary = shard.dictionaries.get(column);
+			int[] translation = new int[dictionary.size() + 1];
+			translation[ColumnStore.NULL_ID] = ColumnStore.NULL_ID;
+			for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+				Integer id = ids.get(entry.getKey());
+				if (id == null) {
+					id = Integer.valueOf(ids.size() + 1);
+					ids.put(entry.getKey(), id);
+				}
+				translation[entry.getValue().intValue()] = id.intValue();
+			}
+			
+			int[] shardValues = shard.values[column];
+			for (int r = 0; r < shard.numRows; r++)
+				values[offset + r] = translation[shardValues[r]];
+			offset += shard.numRows;
+		}
+		return ids.size();
+	}
+	
+	private CsvParser buildParser(ByteBuffer bytes, int start, int end) {
+		return new CsvParser(bytes, start, end, this.separator, this.quotechar, this.escape, this.ignoreLeadingWhiteSpace, this.charset);
+	}
+	
+	/**
+	 * @return the header or, if the file has none, generated names for the columns of the first record
+	 */
+	private List<String> readColumnNames(ByteBuffer bytes) throws InputGenerationException {
+		CsvParser parser = this.buildParser(bytes, 0, bytes.limit());
+		List<String> firstRecord;
+		try {
+			for (int i = 0; i < this.skipLines; i++)
+				parser.next();
+			firstRecord = parser.next();
+		}
+		catch (CharacterCodingException e) {
+			throw new InputGenerationException("Could not decode " + this.file + " as " + this.charset, e);
+		}
+		if (firstRecord == null)
+			return Collections.<String>emptyList();
+		if (this.hasHeader)
+			return firstRecord;
+		List<String> columnNames = new ArrayList<String>(firstRecord.size());
+		for (int c = 0; c < firstRecord.size(); c++)
+			columnNames.add("column" + (c + 1));
+		return columnNames;
+	}
+	
+	/**
+	 * @return position of the first data record (behind the skipped lines and the header)
+	 */
+	private int findFirstRecord(ByteBuffer bytes) throws InputGenerationException {
+		CsvParser parser = this.buildParser(bytes, 0, bytes.limit());
+		try {
+			for (int i = 0; i < this.skipLines; i++)
+				parser.next();
+			if (this.hasHeader)
+				parser.next();
+		}
+		catch (CharacterCodingException e) {
+			throw new InputGenerationException("Could not decode " + this.file + " as " + this.charset, e);
+		}
+		return parser.getPosition();
+	}
+	
+	private List<String> readRecord(CsvParser parser, int numColumns) throws CharacterCodingException {
+		List<String> record = parser.next();
+		while (this.skipDifferingLines && record != null && record.size() != numColumns)
+			record = parser.next();
+		return record;
+	}
+	
+	private ByteBuffer map() throws InputGenerationException {
+		try {
+			RandomAccessFile in = new RandomAccessFile(this.file, "r");
+			try {
+				if (in.length() > Integer.MAX_VALUE)
+					throw new InputGenerationException("Files larger than 2 GB are not supported: " + this.file);
+				// the mapping stays valid after the file is closed
+				return in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch (IOException e) {
+			throw new InputGenerationException("Could not read " + this.file, e);
+		}
+	}
+	
+	/**
+	 * Encoded records of one range with their own dictionaries (ids start with 1, 0 is null).
+	 */
+	private static class Shard {
+		
+		private final List<Map<String, Integer>> dictionaries;
+		private int[][] values;
+		private final int[] nullCounts;
+		private int numRows = 0;
+		
+		public Shard(int numColumns) {
+			this.dictionaries = new ArrayList<Map<String, Integer>>(numColumns);
+			this.values = new int[numColumns][INITIAL_CAPACITY];
+			this.nullCounts = new int[numColumns];
+			for (int c = 0; c < numColumns; c++)
+				this.dictionaries.add(new HashMap<String, Integer>());
+		}
+		
+		public void add(List<String> record) {
+			if (this.values.length == 0)
+				return;
+			if (this.numRows == this.values[0].length)
+				for (int c = 0; c < this.values.length; c++)
+					this.values[c] = Arrays.copyOf(this.values[c], this.numRows * 2);
+			
+			for (int c = 0; c < this.values.length; c++) {
+				String value = c < record.size() ? record.get(c) : null;
+				this.values[c][this.numRows] = this.encode(c, value);
+			}
+			this.numRows++;
+		}
+		
+		private int encode(int column, String value) {
+			if (value == null) {
+				this.nullCounts[column]++;
+				return ColumnStore.NULL_ID;
+			}
+			Map<String, Integer> dictionary = this.dictionaries.get(column);
+			Integer id = dictionary.get(value);
+			if (id == null) {
+				id = Integer.valueOf(dictionary.size() + 1);
+				dictionary.put(value, id);
+			}
+			return id.intValue();
+		}
+	}
+}
@@ -8,44 +8,187 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.ColumnCombination;
 import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
 import de.metanome.algorithm_integration.input.RelationalInputGenerator;
-import de.metanome.algorithm_integration.results.InclusionDependency;
+import de.metanome.algorithm_integration.result_receiver.FunctionalDependencyResultReceiver;
+import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
 import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
 import de.metanome.algorithms.LucieKerstinUCC;
+import de.metanome.algorithms.Metrics;
+import de.metanome.algorithms.ProgressListener;
+import de.metanome.algorithms.data.ValueKernel;
+import de.metanome.algorithms.pli.PliCache;
 import de.metanome.backend.input.csv.DefaultFileInputGenerator;
 import de.metanome.backend.result_receiver.ResultsCache;
 import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+import de.uni_potsdam.hpi.metanome_test_runner.distributed.Coordinator;
+import de.uni_potsdam.hpi.metanome_test_runner.input.ParallelCsvInputGenerator;
 
 public class MetanomeMock {
 
 	public static void execute(Config conf) {
+		List<String> tableNames = getTableNames(conf);
+		if (tableNames.size() == 1) {
+			execute(conf, tableNames.get(0), conf.measurementsFolderPath, conf.inputParallelism, null, conf.pliCacheBudget);
+			return;
+		}
+		try {
+			executeBatch(conf, tableNames);
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Discovers the UCCs of several tables in one run. The tables share one fork-join pool with a fixed number of threads:
+	 * the largest tables start first, so small tables fill up the threads at the end. A table that is at least
+	 * the fair share of one thread (total size / threads) is big: it parses its input and checks its lattice levels
+	 * with tasks on the same pool, so idle threads help with its ranges and candidates.
+	 * Small tables are checked sequentially, side by side. Each table gets its share of the PLI cache budget.
+	 * Results and statistics are written per table (one folder each), together with a summary of all tables.
+	 */
+	private static void executeBatch(final Config conf, List<String> tableNames) throws IOException {
+		final Map<String, Long> sizes = new HashMap<String, Long>();
+		long totalSize = 0;
+		for (String tableName : tableNames) {
+			long size = getInputFile(conf, tableName).length();
+			sizes.put(tableName, Long.valueOf(size));
+			totalSize += size;
+		}
+		List<String> scheduled = new ArrayList<String>(tableNames);
+		Collections.sort(scheduled, new Comparator<String>() {
+			@Override
+			public int compare(String first, String second) {
+				return sizes.get(second).compareTo(sizes.get(first));
+			}
+		});
+		
+		final int threads = Math.max(1, conf.batchParallelism);
+		final long pliCacheBudget = conf.pliCacheBudget / threads;
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		Map<String, Future<String>> summaries = new LinkedHashMap<String, Future<String>>();
 		try {
-			RelationalInputGenerator inputGenerator = new DefaultFileInputGenerator(new ConfigurationSettingFileInput(
-					conf.inputFolderPath + conf.databaseName + File.separator + conf.tableNames[0] + conf.inputFileEnding, true,
-					conf.inputFileSeparator, conf.inputFileQuotechar, conf.inputFileEscape, conf.inputFileStrictQuotes, 
-					conf.inputFileIgnoreLeadingWhiteSpace, conf.inputFileSkipLines, conf.inputFileHasHeader, conf.inputFileSkipDifferingLines));
+			for (final String tableName : scheduled) {
+				final long size = sizes.get(tableName).longValue();
+				final boolean big = threads > 1 && size * threads >= totalSize;
+				summaries.put(tableName, pool.submit(new Callable<String>() {
+					@Override
+					public String call() {
+						String measurementsFolderPath = conf.measurementsFolderPath + tableName + File.separator;
+						long time = execute(conf, tableName, measurementsFolderPath, big ? threads : conf.inputParallelism, big ? pool : null, pliCacheBudget);
+						return tableName + "," + size + "," + big + "," + (time < 0 ? "failed" : String.valueOf(time));
+					}
+				}));
+			}
+			
+			StringBuilder summary = new StringBuilder("table,bytes,big,runtime\r\n");
+			for (Map.Entry<String, Future<String>> entry : summaries.entrySet()) {
+				try {
+					summary.append(entry.getValue().get() + "\r\n");
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while waiting for " + entry.getKey(), e);
+				}
+				catch (ExecutionException e) {
+					e.getCause().printStackTrace();
+					summary.append(entry.getKey() + "," + sizes.get(entry.getKey()) + ",,failed\r\n");
+				}
+			}
+			if (conf.writeResults)
+				writeToFile(summary.toString(), conf.measurementsFolderPath + conf.batchSummaryFileName);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * @return runtime of the discovery in ms (-1, if it failed)
+	 */
+	private static long execute(Config conf, final String tableName, String measurementsFolderPath, int inputParallelism, ForkJoinPool pool, long pliCacheBudget) {
+		try {
+			File inputFile = getInputFile(conf, tableName);
+			if (conf.workers > 0)
+				return executeDistributed(conf, inputFile, measurementsFolderPath);
+			RelationalInputGenerator inputGenerator = buildInputGenerator(conf, inputFile, inputParallelism, pool);
 			ResultsCache resultReceiver = new ResultsCache();
 			
 			LucieKerstinUCC ucc = new LucieKerstinUCC();
 			ucc.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), inputGenerator);
-			ucc.setResultReceiver(resultReceiver);
+			ucc.setResultReceiver((UniqueColumnCombinationResultReceiver) resultReceiver);
+			ResultsCache fdResultReceiver = null;
+			if (conf.discoverFunctionalDependencies) {
+				fdResultReceiver = new ResultsCache();
+				ucc.setResultReceiver((FunctionalDependencyResultReceiver) fdResultReceiver);
+			}
+			ucc.setPliCacheBudget(pliCacheBudget);
+			ucc.setPliCacheEviction(conf.pliCacheEviction);
+			ucc.setTraversal(conf.traversal);
+			ucc.setMaxError(conf.maxError);
+			ucc.setParallelism(conf.parallelism);
+			ucc.setPool(pool);
+			ucc.setCollectMetrics(conf.collectMetrics);
+			if (conf.spillFolderPath != null)
+				ucc.setSpillDirectory(new File(conf.spillFolderPath), inputFile);
+			if (conf.snapshotFolderPath != null)
+				ucc.setSnapshot(new File(conf.snapshotFolderPath), inputFile);
+			ucc.setTimeBudget(conf.timeBudgetMillis);
+			ucc.setMemoryBudget(conf.memoryBudgetBytes);
+			if (conf.checkpointFolderPath != null)
+				ucc.setCheckpoint(new File(conf.checkpointFolderPath, inputFile.getName() + ".checkpoint"), inputFile);
+			if (conf.progressIntervalMillis > 0)
+				ucc.setProgressListener(new ProgressListener() {
+					@Override
+					public void progress(int level, long checked, long remaining, long etaMillis) {
+						System.out.println(tableName + ": level " + level + ", " + checked + " candidates checked, " + remaining + " remaining"
+								+ (etaMillis < 0 ? "" : ", level done in about " + (etaMillis / 1000) + " s"));
+					}
+				}, conf.progressIntervalMillis);
 			
 			long time = System.currentTimeMillis();
 			ucc.execute();
 			time = System.currentTimeMillis() - time;
 			
 			if (conf.writeResults) {
-				writeToFile(ucc.toString() + "\r\n\r\n" + "Runtime: " + time + "\r\n\r\n" + conf.toString(), conf.measurementsFolderPath + conf.statisticsFileName);
-				writeToFile(format(resultReceiver.getNewResults()), conf.measurementsFolderPath + conf.resultFileName);
+				PliCache pliCache = ucc.getPliCache();
+				String cacheStatistics = "PLI cache: " + pliCache.getHits() + " hits, " + pliCache.getMisses() + " misses, " + pliCache.getEvictions() + " evictions"
+						+ "\r\n" + "Value kernel: " + ValueKernel.get().getName();
+				String budgetStatistics = ucc.isComplete() ? "" : "Stopped by the budget: only the UCCs found so far are written"
+						+ (conf.checkpointFolderPath == null ? "" : ", the next run continues from the checkpoint") + "\r\n";
+				Metrics metrics = ucc.getMetrics();
+				String metricsStatistics = metrics == null ? "" : "\r\n\r\n" + "Metrics per level:" + "\r\n" + metrics.toCsv().replace("\n", "\r\n")
+						+ "Peak heap: " + metrics.getPeakHeapBytes() + " bytes";
+				writeToFile("Runtime: " + time + "\r\n" + budgetStatistics + cacheStatistics + metricsStatistics + "\r\n\r\n" + conf.toString(), measurementsFolderPath + conf.statisticsFileName);
+				writeToFile(format(resultReceiver.getNewResults()), measurementsFolderPath + conf.resultFileName);
+				if (fdResultReceiver != null)
+					writeToFile(format(fdResultReceiver.getNewResults()), measurementsFolderPath + conf.fdResultFileName);
+				if (metrics != null) {
+					writeToFile(metrics.toJson(), measurementsFolderPath + conf.metricsJsonFileName);
+					writeToFile(metrics.toCsv(), measurementsFolderPath + conf.metricsCsvFileName);
+				}
 			}
+			return time;
 		}
 		catch (AlgorithmExecutionException e) {
 			e.printStackTrace();
@@ -53,55 +196,103 @@ public class MetanomeMock {
 		catch (IOException e) {
 			e.printStackTrace();
 		}
+		return -1;
+	}
+	
+	/**
+	 * Discovers the UCCs of a table with worker processes (see Coordinator).
+	 */
+	private static long executeDistributed(Config conf, File inputFile, String measurementsFolderPath) throws AlgorithmExecutionException, IOException {
+		ResultsCache resultReceiver = new ResultsCache();
+		
+		long time = System.currentTimeMillis();
+		new Coordinator(conf, inputFile).execute(resultReceiver);
+		time = System.currentTimeMillis() - time;
+		
+		if (conf.writeResults) {
+			writeToFile("Coordinator with " + conf.workers + " workers\r\n\r\n" + "Runtime: " + time + "\r\n\r\n" + conf.toString(), measurementsFolderPath + conf.statisticsFileName);
+			writeToFile(format(resultReceiver.getNewResults()), measurementsFolderPath + conf.resultFileName);
+		}
+		return time;
+	}
+	
+	/**
+	 * @param inputParallelism number of threads that parse the file (0 = read it with the DefaultFileInputGenerator)
+	 */
+	public static RelationalInputGenerator buildInputGenerator(Config conf, File inputFile, int inputParallelism) throws IOException, AlgorithmExecutionException {
+		return buildInputGenerator(conf, inputFile, inputParallelism, null);
+	}
+	
+	/**
+	 * @param executor threads that parse the file in parallel (null = threads of the input generator)
+	 */
+	private static RelationalInputGenerator buildInputGenerator(Config conf, File inputFile, int inputParallelism, ExecutorService executor) throws IOException, AlgorithmExecutionException {
+		if (inputParallelism > 0) {
+			ParallelCsvInputGenerator inputGenerator = new ParallelCsvInputGenerator(inputFile, conf.inputFileSeparator, conf.inputFileQuotechar, 
+					conf.inputFileEscape, conf.inputFileIgnoreLeadingWhiteSpace, conf.inputFileSkipLines, conf.inputFileHasHeader, conf.inputFileSkipDifferingLines,
+					inputParallelism, Charset.forName(conf.inputFileCharset));
+			inputGenerator.setExecutor(executor);
+			return inputGenerator;
+		}
+		return new DefaultFileInputGenerator(new ConfigurationSettingFileInput(
+				inputFile.getPath(), true,
+				conf.inputFileSeparator, conf.inputFileQuotechar, conf.inputFileEscape, conf.inputFileStrictQuotes, 
+				conf.inputFileIgnoreLeadingWhiteSpace, conf.inputFileSkipLines, conf.inputFileHasHeader, conf.inputFileSkipDifferingLines));
+	}
+	
+	private static File getInputFile(Config conf, String tableName) {
+		return new File(conf.inputFolderPath + conf.databaseName + File.separator + tableName + conf.inputFileEnding);
+	}
+	
+	/**
+	 * @return the configured tables or, if there are none, all files of the database folder with the input file ending
+	 */
+	private static List<String> getTableNames(Config conf) {
+		if (conf.tableNames != null)
+			return Arrays.asList(conf.tableNames);
+		
+		List<String> tableNames = new ArrayList<String>();
+		File[] files = new File(conf.inputFolderPath + conf.databaseName).listFiles();
+		if (files != null)
+			for (File file : files)
+				if (file.isFile() && file.getName().endsWith(conf.inputFileEnding))
+					tableNames.add(file.getName().substring(0, file.getName().length() - conf.inputFileEnding.length()));
+		if (tableNames.isEmpty())
+			throw new RuntimeException("No input files in " + conf.inputFolderPath + conf.databaseName);
+		Collections.sort(tableNames);
+		return tableNames;
 	}
 	
 	private static String format(List<Result> results) {
-		HashMap<String, List<String>> ref2Deps = new HashMap<String, List<String>>();
+		List<String> formatted = new ArrayList<String>();
 
 		for (Result result : results) {
-			InclusionDependency ind = (InclusionDependency) result;
-			
-			StringBuilder refBuilder = new StringBuilder("(");
-			Iterator<ColumnIdentifier> refIterator = ind.getReferenced().getColumnIdentifiers().iterator();
-			while (refIterator.hasNext()) {
-				refBuilder.append(refIterator.next().toString());
-				if (refIterator.hasNext())
-					refBuilder.append(",");
-				else
-					refBuilder.append(")");
+			if (result instanceof FunctionalDependency) {
+				FunctionalDependency fd = (FunctionalDependency) result;
+				formatted.add(format(fd.getDeterminant()) + "->" + fd.getDependant().toString());
 			}
-			String ref = refBuilder.toString();
-			
-			StringBuilder depBuilder = new StringBuilder("(");
-			Iterator<ColumnIdentifier> depIterator = ind.getDependant().getColumnIdentifiers().iterator();
-			while (depIterator.hasNext()) {
-				depBuilder.append(depIterator.next().toString());
-				if (depIterator.hasNext())
-					depBuilder.append(",");
-				else
-					depBuilder.append(")");
+			else {
+				UniqueColumnCombination ucc = (UniqueColumnCombination) result;
+				formatted.add(format(ucc.getColumnCombination()));
 			}
-			String dep = depBuilder.toString();
-			
-			if (!ref2Deps.containsKey(ref))
-				ref2Deps.put(ref, new ArrayList<String>());
-			ref2Deps.get(ref).add(dep);
 		}
 		
 		StringBuilder builder = new StringBuilder();
-		ArrayList<String> referenced = new ArrayList<String>(ref2Deps.keySet());
-		Collections.sort(referenced);
-		for (String ref : referenced) {
-			List<String> dependants = ref2Deps.get(ref);
-			Collections.sort(dependants);
-			
-			if (!dependants.isEmpty())
-				builder.append(ref + " > ");
-			for (String dependant : dependants)
-				builder.append(dependant + "  ");
-			if (!dependants.isEmpty())
-				builder.append("\r\n");
+		Collections.sort(formatted);
+		for (String line : formatted)
+			builder.append(line + "\r\n");
+		return builder.toString();
+	}
+	
+	private static String format(ColumnCombination columnCombination) {
+		StringBuilder builder = new StringBuilder("(");
+		Iterator<ColumnIdentifier> iterator = columnCombination.getColumnIdentifiers().iterator();
+		while (iterator.hasNext()) {
+			builder.append(iterator.next().toString());
+			if (iterator.hasNext())
+				builder.append(",");
 		}
+		builder.append(")");
 		return builder.toString();
 	}
 	
@@ -0,0 +1,128 @@
+package de.uni_potsdam.hpi.metanome_test_runner.distributed;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.algorithms.LucieKerstinUCC;
+import de.metanome.algorithms.LucieKerstinUCCAlgorithm;
+import de.metanome.backend.result_receiver.ResultsCache;
+import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+import de.uni_potsdam.hpi.metanome_test_runner.mocks.MetanomeMock;
+
+/**
+ * Starts real worker processes, so the test covers their start-up, the messages, the level barrier and the shutdown.
+ */
+public class CoordinatorTest {
+
+	private File file;
+	private Config conf;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("table", ".csv");
+		this.conf = new Config();
+		this.conf.inputFileHasHeader = true;
+		this.conf.workerJvmOptions = new String[] {"-Xmx64m"};
+	}
+
+	@After
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Test
+	public void testUccsOfSeveralLevelsAndPartitions() throws IOException, AlgorithmExecutionException {
+		// minimal UCCs: BC, ABE, ACD, ADE, BDE and CDE; the three workers lead with A, B and C, D, E, so the worker
+		// of A must learn about BC from the worker of B at the level barrier, before it checks ABC
+		this.write("A,B,C,D,E\n"
+				+ "1,x,p,k,m\n"
+				+ "1,x,q,k,n\n"
+				+ "2,y,p,k,n\n"
+				+ "2,y,q,l,m\n"
+				+ "3,x,r,l,m\n"
+				+ "3,y,r,k,m\n");
+		this.conf.workers = 3;
+
+		Set<List<String>> uccs = this.discoverDistributed();
+		assertEquals(this.discoverBottomUp(), uccs);
+		assertEquals(6, uccs.size());
+	}
+
+	@Test
+	public void testRandomTables() throws IOException, AlgorithmExecutionException {
+		Random random = new Random(1);
+		for (int workers = 1; workers <= 3; workers++) {
+			StringBuilder text = new StringBuilder("c0,c1,c2,c3,c4,c5\n");
+			for (int row = 0; row < 40; row++) {
+				for (int c = 0; c < 6; c++)
+					text.append(c == 0 ? "" : ",").append(random.nextInt(3 + c));
+				text.append('\n');
+			}
+			this.write(text.toString());
+			this.conf.workers = workers;
+			this.conf.inputParallelism = workers - 1;
+
+			assertEquals("workers " + workers, this.discoverBottomUp(), this.discoverDistributed());
+		}
+	}
+
+	private void write(String text) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(this.file), Charset.forName("UTF-8"));
+		try {
+			writer.write(text);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private Set<List<String>> discoverDistributed() throws AlgorithmExecutionException {
+		ResultsCache resultReceiver = new ResultsCache();
+		// returns only after all workers stopped
+		new Coordinator(this.conf, this.file).execute(resultReceiver);
+		return toColumnNames(resultReceiver.getNewResults());
+	}
+
+	private Set<List<String>> discoverBottomUp() throws IOException, AlgorithmExecutionException {
+		ResultsCache resultReceiver = new ResultsCache();
+		LucieKerstinUCC ucc = new LucieKerstinUCC();
+		ucc.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), MetanomeMock.buildInputGenerator(this.conf, this.file, 0));
+		ucc.setResultReceiver((UniqueColumnCombinationResultReceiver) resultReceiver);
+		ucc.setTraversal(LucieKerstinUCCAlgorithm.Traversal.BOTTOM_UP);
+		ucc.execute();
+		return toColumnNames(resultReceiver.getNewResults());
+	}
+
+	private static Set<List<String>> toColumnNames(List<Result> results) {
+		Set<List<String>> uccs = new HashSet<List<String>>();
+		for (Result result : results) {
+			List<String> columnNames = new ArrayList<String>();
+			for (ColumnIdentifier column : ((UniqueColumnCombination) result).getColumnCombination().getColumnIdentifiers())
+				columnNames.add(column.getColumnIdentifier());
+			Collections.sort(columnNames);
+			uccs.add(columnNames);
+		}
+		return uccs;
+	}
+}
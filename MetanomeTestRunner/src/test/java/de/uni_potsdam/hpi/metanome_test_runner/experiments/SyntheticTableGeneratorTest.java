@@ -0,0 +1,112 @@
+package de.uni_potsdam.hpi.metanome_test_runner.experiments;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.UniqueColumnCombinationResultReceiver;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.algorithms.LucieKerstinUCC;
+import de.metanome.algorithms.LucieKerstinUCCAlgorithm;
+import de.metanome.backend.result_receiver.ResultsCache;
+import de.uni_potsdam.hpi.metanome_test_runner.config.Config;
+import de.uni_potsdam.hpi.metanome_test_runner.mocks.MetanomeMock;
+
+public class SyntheticTableGeneratorTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("synthetic", ".csv");
+	}
+
+	@After
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Test
+	public void testPlantedUccsAreMinimal() throws IOException, AlgorithmExecutionException {
+		SyntheticTableGenerator generator = new SyntheticTableGenerator(500, 9, new int[] {3, 5}, 0.2, new int[] {1, 2, 3}, 1);
+		generator.write(this.file);
+
+		List<List<String>> planted = generator.getPlantedUccs();
+		assertEquals(Arrays.asList(Arrays.asList("column1"), Arrays.asList("column2", "column3"), Arrays.asList("column4", "column5", "column6")), planted);
+		// the discovery only reports minimal UCCs
+		Set<List<String>> discovered = this.discover();
+		for (List<String> columnNames : planted)
+			assertTrue(columnNames.toString(), discovered.contains(columnNames));
+	}
+
+	@Test
+	public void testSameSeedSameTable() throws IOException {
+		File other = File.createTempFile("synthetic", ".csv");
+		try {
+			new SyntheticTableGenerator(100, 4, new int[] {7}, 0.1, new int[] {2}, 5).write(this.file);
+			new SyntheticTableGenerator(100, 4, new int[] {7}, 0.1, new int[] {2}, 5).write(other);
+
+			assertTrue(Arrays.equals(Files.readAllBytes(this.file.toPath()), Files.readAllBytes(other.toPath())));
+		}
+		finally {
+			other.delete();
+		}
+	}
+
+	@Test
+	public void testUccsThatCannotBeMinimalAreRejected() {
+		// 10 rows need base 2 for 5 columns, but then 4 of the columns have 2^4 >= 10 distinct values already
+		assertTrue(isRejected(10, 10, new int[] {5}));
+		assertTrue(isRejected(4, 3, new int[] {3}));
+		// more planted columns than columns
+		assertTrue(isRejected(100, 3, new int[] {2, 2}));
+		assertFalse(isRejected(100, 4, new int[] {2, 2}));
+	}
+
+	private static boolean isRejected(int numRows, int numColumns, int[] plantedSizes) {
+		try {
+			new SyntheticTableGenerator(numRows, numColumns, new int[] {10}, 0, plantedSizes, 1);
+			return false;
+		}
+		catch (IllegalArgumentException e) {
+			return true;
+		}
+	}
+
+	private Set<List<String>> discover() throws IOException, AlgorithmExecutionException {
+		Config conf = new Config();
+		ResultsCache resultReceiver = new ResultsCache();
+		LucieKerstinUCC ucc = new LucieKerstinUCC();
+		ucc.setRelationalInputConfigurationValue(LucieKerstinUCC.Identifier.INPUT_GENERATOR.name(), MetanomeMock.buildInputGenerator(conf, this.file, 0));
+		ucc.setResultReceiver((UniqueColumnCombinationResultReceiver) resultReceiver);
+		ucc.setTraversal(LucieKerstinUCCAlgorithm.Traversal.BOTTOM_UP);
+		ucc.execute();
+
+		Set<List<String>> uccs = new HashSet<List<String>>();
+		for (Result result : resultReceiver.getNewResults()) {
+			List<String> columnNames = new ArrayList<String>();
+			for (ColumnIdentifier column : ((UniqueColumnCombination) result).getColumnCombination().getColumnIdentifiers())
+				columnNames.add(column.getColumnIdentifier());
+			Collections.sort(columnNames);
+			uccs.add(columnNames);
+		}
+		return uccs;
+	}
+}
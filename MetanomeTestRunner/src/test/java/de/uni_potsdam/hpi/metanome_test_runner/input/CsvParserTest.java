@@ -0,0 +1,116 @@
+package de.uni_potsdam.hpi.metanome_test_runner.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CsvParserTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Test
+	public void testQuotedLineBreaks() throws CharacterCodingException {
+		List<List<String>> records = parse("a,\"x\r\ny\",c\r\n\"1\n2\r3\",,z\n");
+
+		assertEquals(2, records.size());
+		// like opencsv, the lines of a value are joined with \n
+		assertEquals(Arrays.asList("a", "x\ny", "c"), records.get(0));
+		assertEquals(Arrays.asList("1\n2\n3", null, "z"), records.get(1));
+	}
+
+	@Test
+	public void testDoubledQuotes() throws CharacterCodingException {
+		List<List<String>> records = parse("\"say \"\"hi\"\"\",\"\"\"\"\n");
+
+		assertEquals(Arrays.asList("say \"hi\"", "\""), records.get(0));
+	}
+
+	@Test
+	public void testEscapes() throws CharacterCodingException {
+		List<List<String>> records = parse("a\\\"b,\"x\\\\\",\"\\\"\"\n");
+
+		assertEquals(Arrays.asList("a\"b", "x\\", "\""), records.get(0));
+	}
+
+	@Test
+	public void testEscapesAtRangeBoundaries() throws CharacterCodingException {
+		String text = "a\\\"b,\"x\\\\\"\n\"\\\"\n\\\\\",c\n\"d\\\\\\\"\",\"e\"\"\n\"\n";
+		List<List<String>> expected = parse(text);
+		assertEquals(3, expected.size());
+
+		// every split position must yield the same records, also directly behind an escape char
+		for (int boundary = 0; boundary <= text.length(); boundary++)
+			assertEquals("boundary " + boundary, expected, parseInRanges(text, boundary));
+	}
+
+	@Test
+	public void testInvalidBytesAreRejected() throws CharacterCodingException {
+		byte[] bytes = {'a', ',', (byte) 0xC3, '(', '\n'};
+		CsvParser parser = new CsvParser(ByteBuffer.wrap(bytes), 0, bytes.length, ',', '"', '\\', true, UTF8);
+
+		boolean rejected = false;
+		try {
+			parser.next();
+		}
+		catch (CharacterCodingException e) {
+			rejected = true;
+		}
+		assertTrue(rejected);
+
+		// the same bytes are valid in ISO-8859-1
+		parser = new CsvParser(ByteBuffer.wrap(bytes), 0, bytes.length, ',', '"', '\\', true, Charset.forName("ISO-8859-1"));
+		assertEquals(Arrays.asList("a", "\u00c3("), parser.next());
+		assertNull(parser.next());
+	}
+
+	@Test
+	public void testNonAsciiSyntaxIsRejected() {
+		assertTrue(isRejected('\u00a7', '"', '\\', UTF8));
+		assertTrue(isRejected(',', '\u00bb', '\\', UTF8));
+		assertTrue(isRejected(',', '"', '\u00b4', UTF8));
+		assertTrue(isRejected(',', '"', '\\', Charset.forName("UTF-16")));
+	}
+
+	private static boolean isRejected(char separator, char quotechar, char escape, Charset charset) {
+		try {
+			new CsvParser(ByteBuffer.allocate(0), 0, 0, separator, quotechar, escape, true, charset);
+			return false;
+		}
+		catch (IllegalArgumentException e) {
+			return true;
+		}
+	}
+
+	private static List<List<String>> parse(String text) throws CharacterCodingException {
+		return parseInRanges(text, text.length());
+	}
+
+	/**
+	 * Parses the text in two ranges, like the ParallelCsvInputGenerator does.
+	 */
+	private static List<List<String>> parseInRanges(String text, int boundary) throws CharacterCodingException {
+		ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(UTF8));
+		boundary = CsvParser.adjustBoundary(bytes, boundary, '\\');
+		boolean quoted = new CsvParser(bytes, 0, boundary, ',', '"', '\\', true, UTF8).countQuotes();
+
+		List<List<String>> records = new ArrayList<List<String>>();
+		CsvParser first = new CsvParser(bytes, 0, boundary, ',', '"', '\\', true, UTF8);
+		List<String> record;
+		while ((record = first.next()) != null)
+			records.add(record);
+		CsvParser second = new CsvParser(bytes, boundary, bytes.limit(), ',', '"', '\\', true, UTF8);
+		second.skipToRecordStart(quoted);
+		while ((record = second.next()) != null)
+			records.add(record);
+		return records;
+	}
+}
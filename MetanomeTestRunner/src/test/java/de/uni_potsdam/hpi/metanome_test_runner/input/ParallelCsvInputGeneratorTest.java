@@ -0,0 +1,158 @@
+package de.uni_potsdam.hpi.metanome_test_runner.input;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.algorithms.data.ColumnStore;
+import de.metanome.algorithms.data.EncodedColumn;
+import de.metanome.algorithms.data.EncodedColumns;
+import de.metanome.backend.input.csv.DefaultFileInputGenerator;
+
+public class ParallelCsvInputGeneratorTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String[] LINE_BREAKS = {"\n", "\r\n", "\r"};
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("table", ".csv");
+	}
+
+	@After
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Test
+	public void testSameInputAsDefaultFileInputGenerator() throws IOException, AlgorithmExecutionException {
+		for (String lineBreak : LINE_BREAKS) {
+			this.write("id,name,note\n1,a,\"x\"\"y\"\n2,,\"line\nbreak\"\n3,\"a, b\",z\n\n4,a,\\\"q\n".replace("\n", lineBreak));
+
+			for (boolean hasHeader : new boolean[] {true, false})
+				for (int skipLines : new int[] {0, 1})
+					for (int threads = 1; threads <= 4; threads++)
+						this.assertSameInput(skipLines, hasHeader, threads);
+		}
+	}
+
+	@Test
+	public void testSameInputAsDefaultFileInputGeneratorForRandomTables() throws IOException, AlgorithmExecutionException {
+		Random random = new Random(1);
+		String[] values = {"a", "b", "", "\"q\"\"uote\"", "\"multi\nline\"", "\"multi\r\nline\"", "\"multi\rline\"", "\"x,y\"", "esc\\\"aped"};
+		for (int table = 0; table < 12; table++) {
+			// the records end with each kind of line break in turn, the values mix them
+			String lineBreak = LINE_BREAKS[table % LINE_BREAKS.length];
+			StringBuilder text = new StringBuilder("c1,c2,c3").append(lineBreak);
+			int numRows = random.nextInt(50);
+			for (int row = 0; row < numRows; row++)
+				text.append(values[random.nextInt(values.length)]).append(',')
+					.append(values[random.nextInt(values.length)]).append(',')
+					.append(random.nextInt(10)).append(lineBreak);
+			this.write(text.toString());
+
+			for (int threads = 1; threads <= 8; threads++)
+				this.assertSameInput(0, true, threads);
+		}
+	}
+
+	@Test
+	public void testMoreThreadsThanRecords() throws IOException, AlgorithmExecutionException {
+		this.write("a,b\n1,2\n3,4\n");
+
+		this.assertSameInput(0, true, 16);
+		this.assertSameInput(0, false, 16);
+	}
+
+	@Test
+	public void testHeaderOnly() throws IOException, AlgorithmExecutionException {
+		this.write("a,b\n");
+
+		this.assertSameInput(0, true, 4);
+	}
+
+	private void write(String text) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(this.file), UTF8);
+		try {
+			writer.write(text);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Compares the column names, the records and the encoded columns with the input of the DefaultFileInputGenerator.
+	 */
+	private void assertSameInput(int skipLines, boolean hasHeader, int threads) throws IOException, AlgorithmExecutionException {
+		String setting = "skipLines " + skipLines + ", header " + hasHeader + ", threads " + threads;
+		RelationalInputGenerator expectedGenerator = new DefaultFileInputGenerator(new ConfigurationSettingFileInput(
+				this.file.getPath(), true, ',', '"', '\\', false, true, skipLines, hasHeader, true));
+		ParallelCsvInputGenerator generator = new ParallelCsvInputGenerator(this.file, ',', '"', '\\', true, skipLines, hasHeader, true, threads, UTF8);
+
+		RelationalInput expected = expectedGenerator.generateNewCopy();
+		RelationalInput input = generator.generateNewCopy();
+		assertEquals(setting, expected.columnNames(), input.columnNames());
+		assertEquals(setting, expected.columnNames(), generator.getColumnNames());
+		List<List<String>> records = read(expected);
+		assertEquals(setting, records, read(input));
+
+		ColumnStore expectedColumns = new ColumnStore(expected.numberOfColumns());
+		for (List<String> record : records)
+			expectedColumns.add(record);
+		EncodedColumns columns = generator.generateEncodedColumns();
+		assertEquals(setting, expectedColumns.getNumColumns(), columns.getNumColumns());
+		assertEquals(setting, expectedColumns.getNumRows(), columns.getNumRows());
+		for (int c = 0; c < columns.getNumColumns(); c++) {
+			assertEquals(setting, expectedColumns.getDistinctCount(c), columns.getDistinctCount(c));
+			assertEquals(setting, expectedColumns.getNullCount(c), columns.getNullCount(c));
+			assertEquals(setting, partition(expectedColumns.getColumn(c)), partition(columns.getColumn(c)));
+		}
+	}
+
+	private static List<List<String>> read(RelationalInput input) throws AlgorithmExecutionException {
+		List<List<String>> records = new ArrayList<List<String>>();
+		while (input.hasNext())
+			records.add(input.next());
+		return records;
+	}
+
+	/**
+	 * @return for each row the first row with the same value (-1 for null), so columns can be compared independent of their ids
+	 */
+	private static List<Integer> partition(EncodedColumn column) {
+		Map<Integer, Integer> firstRows = new HashMap<Integer, Integer>();
+		List<Integer> partition = new ArrayList<Integer>();
+		for (int row = 0; row < column.size(); row++) {
+			Integer value = Integer.valueOf(column.get(row));
+			if (value.intValue() == ColumnStore.NULL_ID) {
+				partition.add(Integer.valueOf(-1));
+				continue;
+			}
+			if (!firstRows.containsKey(value))
+				firstRows.put(value, Integer.valueOf(row));
+			partition.add(firstRows.get(value));
+		}
+		return partition;
+	}
+}